@@ -1,25 +1,24 @@
 package com.banking;
 
-import java.text.DecimalFormat;
-
 /**
  * Represents a bank account with a holder and balance
  * @author Jeeva Ramasamy, Parth Patel
  */
-public abstract class Account implements Comparable<Account> {
+public abstract class Account implements Comparable<Account>, Cloneable {
     protected Profile holder;
-    protected double balance;
-    public abstract double monthlyInterest();
-    public abstract double monthlyFee();
+    protected long balance; //balance in cents
+    public abstract long monthlyInterest(RateTable rates);
+    public abstract long monthlyFee(RateTable rates);
     public abstract String getAcctType();
     public abstract String getAcctSymbol();
+    public abstract AccountType getType();
 
     /**
      * Represents an Account object with the specified holder and balance
      * @param holder account holder's profile
-     * @param balance account balance
+     * @param balance account balance in cents
      */
-    public Account(Profile holder, double balance) {
+    public Account(Profile holder, long balance) {
         this.holder = holder;
         this.balance = balance;
     }
@@ -40,39 +39,102 @@ public abstract class Account implements Comparable<Account> {
         return holder;
     }
 
+    /**
+     * Replaces the holder's profile with an equal profile spelled the
+     * same way, so the accounts of one client can share one instance
+     * @param holder the shared profile
+     */
+    void shareProfile(Profile holder) {
+        if (this.holder.isSameSpelling(holder)) {
+            this.holder = holder;
+        }
+    }
+
     /**
      * Returns the account balance
-     * @return balance
+     * @return balance in cents
      */
-    public double getBalance() {
+    public long getBalance() {
         return balance;
     }
 
     /**
      * Adds funds to the account balance
-     * @param amount deposit amount
+     * @param amount deposit amount in cents
      */
-    public void addBalance(double amount) {
+    public void addBalance(long amount) {
         this.balance += amount;
     }
 
     /**
      * Removes funds from the account balance
-     * @param amount withdrawal amount
+     * @param amount withdrawal amount in cents
      */
-    public void subBalance(double amount) {
+    public void subBalance(long amount) {
         this.balance -= amount;
     }
 
+    /**
+     * Returns the monthly interest under the rate table in effect
+     * @return monthly interest in cents
+     */
+    public long monthlyInterest() {
+        return monthlyInterest(RateTable.current());
+    }
+
+    /**
+     * Returns the monthly fee under the rate table in effect
+     * @return monthly fee in cents
+     */
+    public long monthlyFee() {
+        return monthlyFee(RateTable.current());
+    }
+
     /**
      * Returns a string representation of the fees and interests
      * @return string version of fees and interests
      */
     public String getFeesAndInterests() {
-        DecimalFormat money = new DecimalFormat("$#,##0.00");
-        return "::fee " + money.format(monthlyFee())
-                + "::monthly interest "
-                + money.format(balance * monthlyInterest());
+        return appendFeesAndInterests(new StringBuilder()).toString();
+    }
+
+    /**
+     * Writes the fees and interests into the specified builder
+     * in the format: ::fee $fee::monthly interest $interest
+     * @param out builder the fees and interests are written to
+     * @return the specified builder
+     */
+    public StringBuilder appendFeesAndInterests(StringBuilder out) {
+        return appendFeesAndInterests(out, RateTable.current());
+    }
+
+    /**
+     * Writes the fees and interests under a rate table into the specified
+     * builder in the format: ::fee $fee::monthly interest $interest
+     * @param out builder the fees and interests are written to
+     * @param rates the rate table
+     * @return the specified builder
+     */
+    public StringBuilder appendFeesAndInterests(StringBuilder out,
+                                                RateTable rates) {
+        out.append("::fee ");
+        Money.appendTo(out, monthlyFee(rates));
+        out.append("::monthly interest ");
+        return Money.appendTo(out, monthlyInterest(rates));
+    }
+
+    /**
+     * Returns a copy of the account that later changes to this account
+     * do not affect
+     * @return the copy
+     */
+    Account copy() {
+        try {
+            return (Account) super.clone();
+        }
+        catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
     }
 
     /**
@@ -91,12 +153,21 @@ public abstract class Account implements Comparable<Account> {
 
     /**
      * Returns a string representation of the Account
-     * in the format: holder::Balance $balance
      * @return string version of account
      */
     @Override
     public String toString() {
-        DecimalFormat money = new DecimalFormat("$#,###,##0.00");
-        return holder + "::Balance " + money.format(balance);
+        return appendTo(new StringBuilder()).toString();
+    }
+
+    /**
+     * Writes the Account into the specified builder
+     * in the format: holder::Balance $balance
+     * @param out builder the account is written to
+     * @return the specified builder
+     */
+    public StringBuilder appendTo(StringBuilder out) {
+        holder.appendTo(out).append("::Balance ");
+        return Money.appendTo(out, balance);
     }
 }
\ No newline at end of file
@@ -1,5 +1,14 @@
 package com.banking;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
 /**
  * Represents an organized list of accounts
  * @author Jeeva Ramasamy, Parth Patel
@@ -7,43 +16,79 @@ package com.banking;
 public class AccountDatabase {
     private Account [] accounts; //list of various types of accounts
     private int numAcct; //number of accounts in the array
+    private HashMap<Profile, Customer> customers; //accounts of each holder
+    private TreeSet<Account> sorted; //accounts by account type and profile
+    private Profile [] holders; //holders sorted by profile, null if stale
 
     private static final int NOT_FOUND = -1;
     private static final int INITIAL_CAPACITY = 4;
-    private static final int CAPACITY_INCREASE = 4;
+    private static final int GROWTH_SHIFT = 1; //grows by half the capacity
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
     private static final int EMPTY = 0;
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
+    private static final String EMPTY_DATABASE =
+            "banking.Account Database is empty!\n";
+    private static final String END_OF_LIST = "*end of list.\n";
 
     /**
      * Creates an empty list of accounts with an initial capacity of 4
      */
     public AccountDatabase() {
-        accounts = new Account[INITIAL_CAPACITY];
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Creates an empty list of accounts with the specified initial capacity
+     * @param capacity expected number of accounts
+     * @throws IllegalArgumentException if the capacity is negative
+     */
+    public AccountDatabase(int capacity) {
+        if (capacity < EMPTY) {
+            throw new IllegalArgumentException("Negative capacity: "
+                    + capacity);
+        }
+        accounts = new Account[Math.max(capacity, INITIAL_CAPACITY)];
         numAcct = EMPTY;
+        customers = new HashMap<>();
+        sorted = new TreeSet<>();
     }
 
     /**
-     * Search for an account in the array
+     * Search for an account in the index by its holder and account family
      * @param account account to be searched
      * @return index of where the account if it is located, -1 otherwise
      */
     private int find(Account account) {
-        for (int i = 0; i < numAcct; ++i) {
-            if (accounts[i].equals(account)) {
-                return i;
-            }
+        Customer customer = customers.get(account.getProfile());
+        if (customer == null) {
+            return NOT_FOUND;
         }
-        return NOT_FOUND;
+        return customer.slots[familyCode(account)];
+    }
+
+    /**
+     * Returns the type code of the account family the account belongs to
+     * @param account account whose family is needed
+     * @return type code of the account family
+     */
+    private static int familyCode(Account account) {
+        return account.getType().family().getTypeCode();
     }
 
     /**
-     * Increases size by database by 4
+     * Makes sure the database can hold the specified number of accounts
+     * without growing again
+     * @param capacity number of accounts the database must hold
      */
-    private void grow() {
-        Account[] increasedAccounts = new Account[numAcct + CAPACITY_INCREASE];
-        for (int i = 0; i < numAcct; ++i) {
-            increasedAccounts[i] = accounts[i];
+    public void ensureCapacity(int capacity) {
+        if (capacity <= accounts.length) {
+            return;
         }
-        accounts = increasedAccounts;
+        int increased = accounts.length + (accounts.length >> GROWTH_SHIFT);
+        if (increased < EMPTY || increased > MAX_CAPACITY) {
+            increased = MAX_CAPACITY;
+        }
+        accounts = Arrays.copyOf(accounts, Math.max(capacity, increased));
     }
 
     /**
@@ -52,14 +97,7 @@ public class AccountDatabase {
      * @return true if in database, false otherwise
      */
     public boolean contains(Account account) {
-        for (int i = 0; i < numAcct; ++i) {
-            if (accounts[i].equals(account)) {
-                if (accounts[i].getAcctType().equals(account.getAcctType())) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return find(account.getType(), account.getProfile()) != NOT_FOUND;
     }
 
     /**
@@ -71,12 +109,7 @@ public class AccountDatabase {
      */
     public boolean contains(Account account, boolean isOpening) {
         if (isOpening) {
-            for (int i = 0; i < numAcct; ++i) {
-                if (accounts[i].equals(account)) {
-                    return true;
-                }
-            }
-            return false;
+            return find(account) != NOT_FOUND;
         }
         return false;
     }
@@ -84,17 +117,144 @@ public class AccountDatabase {
     /**
      * Add a new account to the database
      * @param account account to be added
-     * @return true if successfully added, false otherwise
+     * @return true if successfully added, false if the holder already
+     *         has an account in the same account family
      */
     public boolean open(Account account) {
-        if (numAcct == accounts.length) {
-            grow();
+        Customer customer = customers.get(account.getProfile());
+        if (customer == null) {
+            customer = new Customer(account.getProfile());
+            customers.put(customer.holder, customer);
+            holders = null;
+        }
+        else if (customer.slots[familyCode(account)] != NOT_FOUND) {
+            return false;
         }
+        else {
+            account.shareProfile(customer.holder);
+        }
+        ensureCapacity(numAcct + 1);
         accounts[numAcct] = account;
+        customer.slots[familyCode(account)] = numAcct;
+        ++customer.numAcct;
+        sorted.add(account);
         ++numAcct;
         return true;
     }
 
+    /**
+     * Returns the number of accounts in the database
+     * @return number of accounts
+     */
+    public int size() {
+        return numAcct;
+    }
+
+    /**
+     * Returns the accounts in the database sorted by account type
+     * and profile
+     * @return a new array of the accounts
+     */
+    public Account[] toArray() {
+        return sorted.toArray(new Account[numAcct]);
+    }
+
+    /**
+     * Returns every account of a holder, at most one per account family
+     * @param holder account holder's profile
+     * @return a new array of the holder's accounts, empty if none
+     */
+    public Account[] getAccounts(Profile holder) {
+        Customer customer = customers.get(holder);
+        if (customer == null) {
+            return new Account[EMPTY];
+        }
+        Account[] held = new Account[customer.numAcct];
+        int i = EMPTY;
+        for (int slot : customer.slots) {
+            if (slot != NOT_FOUND) {
+                held[i++] = accounts[slot];
+            }
+        }
+        return held;
+    }
+
+    /**
+     * Returns the total balance of every account of a holder
+     * @param holder account holder's profile
+     * @return total balance in cents, 0 if the holder has no accounts
+     */
+    public long getRelationshipBalance(Profile holder) {
+        Customer customer = customers.get(holder);
+        if (customer == null) {
+            return EMPTY;
+        }
+        long total = EMPTY;
+        for (int slot : customer.slots) {
+            if (slot != NOT_FOUND) {
+                total += accounts[slot].getBalance();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Finds the holders whose last name starts with the prefix,
+     * ignoring case
+     * @param prefix beginning of the last name
+     * @return the holders sorted by profile
+     */
+    public Profile[] findByLastName(String prefix) {
+        Profile[] sortedHolders = holders();
+        int low = 0;
+        int high = sortedHolders.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedHolders[mid].getLname().compareToIgnoreCase(prefix) < 0) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        int end = low;
+        while (end < sortedHolders.length && sortedHolders[end].getLname()
+                .regionMatches(true, 0, prefix, 0, prefix.length())) {
+            ++end;
+        }
+        return Arrays.copyOfRange(sortedHolders, low, end);
+    }
+
+    /**
+     * Returns the holders sorted by profile, sorting them again only if
+     * a holder was added or removed since the last time
+     * @return the sorted holders
+     */
+    private Profile[] holders() {
+        if (holders == null) {
+            holders = customers.keySet().toArray(new Profile[EMPTY]);
+            Arrays.sort(holders);
+        }
+        return holders;
+    }
+
+    /**
+     * Adds a batch of new accounts to the database, growing the storage
+     * once for the whole batch
+     * @param batch accounts to be added
+     * @return set of positions in the batch that were successfully added
+     */
+    public BitSet openAll(List<Account> batch) {
+        ensureCapacity(numAcct + batch.size());
+        BitSet opened = new BitSet(batch.size());
+        for (int i = 0; i < batch.size(); ++i) {
+            if (open(batch.get(i))) {
+                opened.set(i);
+            }
+        }
+        return opened;
+    }
+
     /**
      * Remove the given account from the database
      * @param account account to be closed
@@ -109,15 +269,23 @@ public class AccountDatabase {
         if (acctIndex == NOT_FOUND) {
             return false;
         }
-        if (!accounts[acctIndex].getAcctType().equals(account.getAcctType())) {
+        if (accounts[acctIndex].getType() != account.getType()) {
             return false;
         }
 
-        for (int i = acctIndex; i < numAcct - 1; ++i) {
-            accounts[i] = accounts[i + 1];
+        Customer customer = customers.get(account.getProfile());
+        customer.slots[familyCode(account)] = NOT_FOUND;
+        if (--customer.numAcct == EMPTY) {
+            customers.remove(customer.holder);
+            holders = null;
         }
-
+        sorted.remove(accounts[acctIndex]);
         --numAcct;
+        if (acctIndex != numAcct) {
+            accounts[acctIndex] = accounts[numAcct];
+            customers.get(accounts[acctIndex].getProfile())
+                    .slots[familyCode(accounts[acctIndex])] = acctIndex;
+        }
         accounts[numAcct] = null;
 
         return true;
@@ -126,20 +294,12 @@ public class AccountDatabase {
     /**
      * Withdraws the amount from the account
      * @param account account money is withdrawn from
-     * @return false if insufficient fund, true otherwise
+     * @return false if not in the database or insufficient fund,
+     *         true otherwise
      */
     public boolean withdraw(Account account) {
-        int acctIndex = find(account);
-        if (accounts[acctIndex].getBalance() >= account.getBalance()) {
-            accounts[acctIndex].subBalance(account.getBalance());
-            if (accounts[acctIndex] instanceof MoneyMarket) {
-                MoneyMarket acct = (MoneyMarket) accounts[acctIndex];
-                acct.addWithdrawal();
-                acct.updateLoyalty();
-            }
-            return true;
-        }
-        return false;
+        return withdraw(account.getType(), account.getProfile(),
+                account.getBalance()).isOk();
     }
 
     /**
@@ -147,12 +307,164 @@ public class AccountDatabase {
      * @param account account money is deposited to
      */
     public void deposit(Account account) {
-        int acctIndex = find(account);
-        accounts[acctIndex].addBalance(account.getBalance());
-        if (accounts[acctIndex] instanceof MoneyMarket) {
-            MoneyMarket acct = (MoneyMarket) accounts[acctIndex];
+        deposit(account.getType(), account.getProfile(),
+                account.getBalance());
+    }
+
+    /**
+     * Withdraws the amount from an account with a single lookup
+     * @param type account type
+     * @param holder account holder's profile
+     * @param amount positive withdrawal amount in cents
+     * @return OK, NOT_FOUND or INSUFFICIENT_FUNDS
+     */
+    public ResultCode withdraw(AccountType type, Profile holder,
+                               long amount) {
+        int acctIndex = find(type, holder);
+        if (acctIndex == NOT_FOUND) {
+            return ResultCode.NOT_FOUND;
+        }
+        if (!withdraw(accounts[acctIndex], amount)) {
+            return ResultCode.INSUFFICIENT_FUNDS;
+        }
+        return ResultCode.OK;
+    }
+
+    /**
+     * Deposits the amount into an account with a single lookup
+     * @param type account type
+     * @param holder account holder's profile
+     * @param amount positive deposit amount in cents
+     * @return OK or NOT_FOUND
+     */
+    public ResultCode deposit(AccountType type, Profile holder, long amount) {
+        int acctIndex = find(type, holder);
+        if (acctIndex == NOT_FOUND) {
+            return ResultCode.NOT_FOUND;
+        }
+        deposit(accounts[acctIndex], amount);
+        return ResultCode.OK;
+    }
+
+    /**
+     * Checks whether a withdrawal would be applied, without changing
+     * the account
+     * @param type account type
+     * @param holder account holder's profile
+     * @param amount positive withdrawal amount in cents
+     * @return OK, NOT_FOUND or INSUFFICIENT_FUNDS
+     */
+    public ResultCode checkWithdraw(AccountType type, Profile holder,
+                                    long amount) {
+        int acctIndex = find(type, holder);
+        if (acctIndex == NOT_FOUND) {
+            return ResultCode.NOT_FOUND;
+        }
+        if (accounts[acctIndex].getBalance() < amount) {
+            return ResultCode.INSUFFICIENT_FUNDS;
+        }
+        return ResultCode.OK;
+    }
+
+    /**
+     * Checks whether a deposit would be applied, without changing
+     * the account
+     * @param type account type
+     * @param holder account holder's profile
+     * @return OK or NOT_FOUND
+     */
+    public ResultCode checkDeposit(AccountType type, Profile holder) {
+        if (find(type, holder) == NOT_FOUND) {
+            return ResultCode.NOT_FOUND;
+        }
+        return ResultCode.OK;
+    }
+
+    /**
+     * Applies a batch of deposits and withdrawals. Each posting's account
+     * is looked up once, then the postings are applied grouped by account
+     * so each account is visited in one run; postings on the same account
+     * keep their order in the batch, so the outcome is the same as
+     * applying them one by one.
+     * @param batch postings to be applied
+     * @return set of positions in the batch that were applied; a posting
+     *         is not applied if its account is not in the database or a
+     *         withdrawal exceeds the balance
+     */
+    public BitSet applyBatch(List<Posting> batch) {
+        long[] order = new long[batch.size()];
+        int resolved = EMPTY;
+        for (int i = 0; i < batch.size(); ++i) {
+            int acctIndex = find(batch.get(i).getType(),
+                    batch.get(i).getHolder());
+            if (acctIndex != NOT_FOUND) {
+                order[resolved++] = ((long) acctIndex << Integer.SIZE) | i;
+            }
+        }
+        Arrays.sort(order, EMPTY, resolved);
+        BitSet applied = new BitSet(batch.size());
+        for (int k = 0; k < resolved; ++k) {
+            Account stored = accounts[(int) (order[k] >>> Integer.SIZE)];
+            int i = (int) order[k];
+            Posting posting = batch.get(i);
+            if (posting.isDeposit()) {
+                deposit(stored, posting.getAmount());
+                applied.set(i);
+            }
+            else if (withdraw(stored, posting.getAmount())) {
+                applied.set(i);
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Search for an account of exactly the specified type
+     * @param type account type
+     * @param holder account holder's profile
+     * @return index of the account if it is located, -1 otherwise
+     */
+    private int find(AccountType type, Profile holder) {
+        Customer customer = customers.get(holder);
+        if (customer == null) {
+            return NOT_FOUND;
+        }
+        int acctIndex = customer.slots[type.family().getTypeCode()];
+        if (acctIndex == NOT_FOUND || accounts[acctIndex].getType() != type) {
+            return NOT_FOUND;
+        }
+        return acctIndex;
+    }
+
+    /**
+     * Withdraws the amount from a stored account
+     * @param stored account in the database
+     * @param amount withdrawal amount in cents
+     * @return false if insufficient fund, true otherwise
+     */
+    private static boolean withdraw(Account stored, long amount) {
+        if (stored.getBalance() < amount) {
+            return false;
+        }
+        stored.subBalance(amount);
+        if (stored instanceof MoneyMarket) {
+            MoneyMarket acct = (MoneyMarket) stored;
+            acct.addWithdrawal();
             acct.updateLoyalty();
         }
+        return true;
+    }
+
+    /**
+     * Deposits the amount into a stored account
+     * @param stored account in the database
+     * @param amount deposit amount in cents
+     */
+    private static void deposit(Account stored, long amount) {
+        stored.addBalance(amount);
+        if (stored instanceof MoneyMarket) {
+            ((MoneyMarket) stored).updateLoyalty();
+        }
     }
 
     /**
@@ -160,17 +472,7 @@ public class AccountDatabase {
      * @return a string of sorted accounts
      */
     public String printSorted() {
-        if (numAcct == EMPTY) {
-            return "banking.Account Database is empty!\n";
-        }
-
-        String output = "*Accounts sorted by account type and profile.\n";
-        sortAccounts();
-        for (int i = 0; i < numAcct; ++i) {
-            output += accounts[i] + "\n";
-        }
-        output += "*end of list.\n";
-        return output;
+        return render(this::writeSorted);
     }
 
     /**
@@ -178,63 +480,160 @@ public class AccountDatabase {
      * @return a string of accounts along with interests/fees
      */
     public String printFeesAndInterests() {
+        return render(this::writeFeesAndInterests);
+    }
+
+    /**
+     * Gets the accounts after applying the interests/fees
+     * @return a string of accounts after applying the interests/fees
+     */
+    public String printUpdatedBalances() {
+        return render(this::writeUpdatedBalances);
+    }
+
+    /**
+     * Writes the sorted accounts one account at a time
+     * @param out destination of the report
+     * @throws IOException if the destination cannot be written to
+     */
+    public void writeSorted(Appendable out) throws IOException {
         if (numAcct == EMPTY) {
-            return "banking.Account Database is empty!\n";
+            out.append(EMPTY_DATABASE);
+            return;
         }
 
-        String output = "*list of accounts with fee and monthly interest\n";
-        sortAccounts();
-        for (int i = 0; i < numAcct; ++i) {
-            output += accounts[i]
-                    + accounts[i].getFeesAndInterests() + "\n";
+        out.append("*Accounts sorted by account type and profile.\n");
+        StringBuilder row = new StringBuilder();
+        for (Account account : sorted) {
+            row.setLength(EMPTY);
+            out.append(account.appendTo(row).append('\n'));
         }
-        output += "*end of list.\n";
-        return output;
+        out.append(END_OF_LIST);
     }
 
     /**
-     * Gets the accounts after applying the interests/fees
-     * @return a string of accounts after applying the interests/fees
+     * Writes the accounts along with interests/fees one account at a time
+     * @param out destination of the report
+     * @throws IOException if the destination cannot be written to
      */
-    public String printUpdatedBalances(){
+    public void writeFeesAndInterests(Appendable out) throws IOException {
         if (numAcct == EMPTY) {
-           return "banking.Account Database is empty!\n";
+            out.append(EMPTY_DATABASE);
+            return;
         }
 
-        String output = "*list of accounts with fees"
-                + " and interests applied.\n";
-        sortAccounts();
+        out.append("*list of accounts with fee and monthly interest\n");
+        StringBuilder row = new StringBuilder();
+        for (Account account : sorted) {
+            row.setLength(EMPTY);
+            account.appendTo(row);
+            out.append(account.appendFeesAndInterests(row).append('\n'));
+        }
+        out.append(END_OF_LIST);
+    }
 
-        for (int i = 0; i < numAcct; ++i) {
-            accounts[i].addBalance(accounts[i].monthlyInterest()
-                    * accounts[i].getBalance());
-            accounts[i].subBalance(accounts[i].monthlyFee());
-            if (accounts[i] instanceof MoneyMarket) {
-                MoneyMarket acct = (MoneyMarket) accounts[i];
-                acct.clearWithdrawals();
-            }
+    /**
+     * Applies the interests/fees and writes the updated accounts
+     * one account at a time
+     * @param out destination of the report
+     * @throws IOException if the destination cannot be written to
+     */
+    public void writeUpdatedBalances(Appendable out) throws IOException {
+        writeUpdatedBalances(out, RateTable.current());
+    }
+
+    /**
+     * Applies the interests/fees of a rate table and writes the updated
+     * accounts one account at a time
+     * @param out destination of the report
+     * @param rates the rate table
+     * @throws IOException if the destination cannot be written to
+     */
+    public void writeUpdatedBalances(Appendable out, RateTable rates)
+            throws IOException {
+        if (numAcct == EMPTY) {
+            out.append(EMPTY_DATABASE);
+            return;
         }
 
-        for (int i = 0; i < numAcct; ++i) {
-            output += accounts[i] + "\n";
+        applyMonthlyInterestAndFees(rates);
+        out.append("*list of accounts with fees and interests applied.\n");
+        StringBuilder row = new StringBuilder();
+        for (Account account : sorted) {
+            row.setLength(EMPTY);
+            out.append(account.appendTo(row).append('\n'));
         }
-        output += "*end of list.\n";
-        return output;
+        out.append(END_OF_LIST);
     }
 
     /**
-     * Sorts the accounts by account type and profile
+     * Adds a month of interest to every account, then takes the monthly
+     * fee and clears the Money Market withdrawal counts, all under the
+     * rate table in effect when the run starts
+     * @return interest paid and fees collected per account type
      */
-    private void sortAccounts() {
-        for (int i = 1; i < numAcct; ++i) {
-            Account key = accounts[i];
-            int j = i - 1;
-            while (j >= 0 && accounts[j].compareTo(key) > 0) {
-                accounts[j + 1] = accounts[j];
-                --j;
-            }
-            accounts[j + 1] = key;
+    public MonthlyTotals applyMonthlyInterestAndFees() {
+        return applyMonthlyInterestAndFees(RateTable.current());
+    }
+
+    /**
+     * Adds a month of interest to every account, then takes the monthly
+     * fee and clears the Money Market withdrawal counts. Every account is
+     * computed with the same rate table, even if another is put into
+     * effect meanwhile. Large databases are split across the common
+     * fork-join pool. The database must not be changed while this runs.
+     * @param rates the rate table
+     * @return interest paid and fees collected per account type
+     */
+    public MonthlyTotals applyMonthlyInterestAndFees(RateTable rates) {
+        Stream<Account> stream = Arrays.stream(accounts, 0, numAcct);
+        if (numAcct >= PARALLEL_THRESHOLD) {
+            stream = stream.parallel();
         }
+        return stream.collect(MonthlyTotals::new,
+                (totals, acct) -> totals.apply(acct, rates),
+                MonthlyTotals::merge);
     }
 
-}
\ No newline at end of file
+    /**
+     * Collects a report into a string
+     * @param report report to be collected
+     * @return string version of the report
+     */
+    private static String render(Report report) {
+        StringBuilder output = new StringBuilder();
+        try {
+            report.writeTo(output);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toString();
+    }
+
+    /**
+     * Writes a report to a destination
+     */
+    private interface Report {
+        void writeTo(Appendable out) throws IOException;
+    }
+
+    /**
+     * Represents the accounts one holder has, by account family
+     */
+    private static class Customer {
+        private final Profile holder; //profile shared by the accounts
+        private final int[] slots; //slots by family type code
+        private int numAcct; //number of accounts held
+
+        /**
+         * Creates a holder with no accounts
+         * @param holder account holder's profile
+         */
+        private Customer(Profile holder) {
+            this.holder = holder;
+            this.slots = new int[AccountType.values().length];
+            Arrays.fill(this.slots, NOT_FOUND);
+        }
+    }
+}
@@ -16,7 +16,7 @@ public class AccountDatabaseTest {
     public void test_SuccessfulRemoval() {
         AccountDatabase database = new AccountDatabase();
         Profile profile = new Profile("Bill", "Gates", new Date(1976, 1, 1));
-        Account account = new Checking(profile, 100);
+        Account account = new Checking(profile, 10000);
         database.open(account);
         assertTrue(database.close(account));
     }
@@ -29,7 +29,218 @@ public class AccountDatabaseTest {
     public void test_NotInDatabase() {
         AccountDatabase database = new AccountDatabase();
         Profile profile = new Profile("Bill", "Gates", new Date(1976, 1, 1));
-        Account account = new Checking(profile, 100);
+        Account account = new Checking(profile, 10000);
         assertFalse(database.close(account));
     }
-}
\ No newline at end of file
+
+    /**
+     * Test case #3
+     * Tests if a College Checking account cannot be opened
+     * when the holder already has a Checking account
+     */
+    @org.junit.Test
+    public void test_CheckingFamilyConflict() {
+        AccountDatabase database = new AccountDatabase();
+        Account checking = new Checking(
+                new Profile("Bill", "Gates", new Date(2003, 1, 1)), 10000);
+        Account college = new CollegeChecking(
+                new Profile("bill", "GATES", new Date(2003, 1, 1)), 10000,
+                Campus.NEWARK);
+        assertTrue(database.open(checking));
+        assertTrue(database.contains(college, true));
+        assertFalse(database.contains(college));
+        assertFalse(database.open(college));
+    }
+
+    /**
+     * Test case #4
+     * Tests if the remaining accounts are still found after an account
+     * in the middle of the database is removed
+     */
+    @org.junit.Test
+    public void test_RemovalKeepsOtherAccounts() {
+        AccountDatabase database = new AccountDatabase(1);
+        Account first = new Checking(
+                new Profile("Bill", "Gates", new Date(1976, 1, 1)), 10000);
+        Account second = new Savings(
+                new Profile("Steve", "Jobs", new Date(1955, 2, 24)), 10000);
+        Account third = new MoneyMarket(
+                new Profile("Ada", "Lovelace", new Date(1990, 12, 10)), 250000);
+        database.open(first);
+        database.open(second);
+        database.open(third);
+        assertTrue(database.close(second));
+        assertFalse(database.contains(second));
+        assertTrue(database.contains(first));
+        assertTrue(database.contains(third));
+        assertTrue(database.close(third));
+        assertTrue(database.close(first));
+    }
+
+    /**
+     * Test case #5
+     * Tests if the month-end run reports the interest paid and the fees
+     * collected for each account type
+     */
+    @org.junit.Test
+    public void test_MonthlyTotalsPerType() {
+        AccountDatabase database = new AccountDatabase();
+        database.open(new Checking(
+                new Profile("Bill", "Gates", new Date(1976, 1, 1)), 100000));
+        database.open(new Savings(
+                new Profile("Steve", "Jobs", new Date(1955, 2, 24)), 10000,
+                false));
+        MonthlyTotals totals = database.applyMonthlyInterestAndFees();
+        assertEquals(83, totals.getInterest(AccountType.CHECKING));
+        assertEquals(0, totals.getFees(AccountType.CHECKING));
+        assertEquals(33, totals.getInterest(AccountType.SAVINGS));
+        assertEquals(2500, totals.getFees(AccountType.SAVINGS));
+        assertEquals(0, totals.getInterest(AccountType.MONEY_MARKET));
+        assertEquals(116, totals.getTotalInterest());
+    }
+
+    /**
+     * Test case #6
+     * Tests if the accounts of a holder are found by profile and by the
+     * beginning of the last name, and are forgotten once closed
+     */
+    @org.junit.Test
+    public void test_AccountsOfCustomer() {
+        AccountDatabase database = new AccountDatabase();
+        Profile bill = new Profile("Bill", "Gates", new Date(1976, 1, 1));
+        Account checking = new Checking(bill, 100000);
+        database.open(checking);
+        database.open(new Savings(
+                new Profile("bill", "GATES", new Date(1976, 1, 1)), 50000,
+                false));
+        database.open(new Checking(
+                new Profile("Steve", "Jobs", new Date(1955, 2, 24)), 10000));
+        assertEquals(2, database.getAccounts(bill).length);
+        assertEquals(150000, database.getRelationshipBalance(bill));
+        assertArrayEquals(new Profile[] {bill},
+                database.findByLastName("ga"));
+        database.close(checking);
+        assertEquals(50000, database.getRelationshipBalance(bill));
+        assertEquals(0, database.findByLastName("Jobsx").length);
+    }
+
+    /**
+     * Test case #7
+     * Tests if a deposit and a withdrawal by exact account type reach
+     * the holder's account, found by an equal profile in another case
+     */
+    @org.junit.Test
+    public void test_ExactTypeMatch() {
+        AccountDatabase database = new AccountDatabase();
+        Profile bill = new Profile("Bill", "Gates", new Date(1976, 1, 1));
+        Profile other = new Profile("BILL", "gates", new Date(1976, 1, 1));
+        database.open(new Savings(bill, 10000, false));
+        assertEquals(ResultCode.OK, database.checkDeposit(
+                AccountType.SAVINGS, other));
+        assertEquals(ResultCode.OK, database.deposit(AccountType.SAVINGS,
+                other, 2500));
+        assertEquals(ResultCode.OK, database.checkWithdraw(
+                AccountType.SAVINGS, other, 12500));
+        assertEquals(ResultCode.OK, database.withdraw(AccountType.SAVINGS,
+                other, 12500));
+        assertEquals(0, database.getRelationshipBalance(bill));
+    }
+
+    /**
+     * Test case #8
+     * Tests if a Checking transaction does not reach the holder's College
+     * Checking account in the same family, nor the other way round
+     */
+    @org.junit.Test
+    public void test_FamilyTypeMismatch() {
+        AccountDatabase database = new AccountDatabase();
+        Profile jane = new Profile("Jane", "Doe", new Date(2003, 5, 5));
+        Profile bill = new Profile("Bill", "Gates", new Date(1976, 1, 1));
+        database.open(new CollegeChecking(jane, 10000, Campus.NEWARK));
+        database.open(new Checking(bill, 10000));
+        assertEquals(ResultCode.NOT_FOUND, database.checkDeposit(
+                AccountType.CHECKING, jane));
+        assertEquals(ResultCode.NOT_FOUND, database.deposit(
+                AccountType.CHECKING, jane, 100));
+        assertEquals(ResultCode.NOT_FOUND, database.checkWithdraw(
+                AccountType.CHECKING, jane, 100));
+        assertEquals(ResultCode.NOT_FOUND, database.withdraw(
+                AccountType.CHECKING, jane, 100));
+        assertEquals(ResultCode.NOT_FOUND, database.deposit(
+                AccountType.COLLEGE_CHECKING, bill, 100));
+        assertEquals(ResultCode.NOT_FOUND, database.withdraw(
+                AccountType.COLLEGE_CHECKING, bill, 100));
+        assertEquals(10000, database.getRelationshipBalance(jane));
+        assertEquals(10000, database.getRelationshipBalance(bill));
+    }
+
+    /**
+     * Test case #9
+     * Tests if a holder with no accounts is reported as not found
+     */
+    @org.junit.Test
+    public void test_UnknownHolder() {
+        AccountDatabase database = new AccountDatabase();
+        Profile steve = new Profile("Steve", "Jobs", new Date(1955, 2, 24));
+        database.open(new Checking(
+                new Profile("Bill", "Gates", new Date(1976, 1, 1)), 10000));
+        assertEquals(ResultCode.NOT_FOUND, database.checkDeposit(
+                AccountType.CHECKING, steve));
+        assertEquals(ResultCode.NOT_FOUND, database.deposit(
+                AccountType.CHECKING, steve, 100));
+        assertEquals(ResultCode.NOT_FOUND, database.checkWithdraw(
+                AccountType.CHECKING, steve, 100));
+        assertEquals(ResultCode.NOT_FOUND, database.withdraw(
+                AccountType.CHECKING, steve, 100));
+        assertEquals(1, database.size());
+    }
+
+    /**
+     * Test case #10
+     * Tests if a withdrawal over the balance is refused by both the check
+     * and the withdrawal, leaving the balance unchanged, and if the whole
+     * balance can be withdrawn
+     */
+    @org.junit.Test
+    public void test_InsufficientFunds() {
+        AccountDatabase database = new AccountDatabase();
+        Profile bill = new Profile("Bill", "Gates", new Date(1976, 1, 1));
+        database.open(new Checking(bill, 10000));
+        assertEquals(ResultCode.INSUFFICIENT_FUNDS, database.checkWithdraw(
+                AccountType.CHECKING, bill, 10001));
+        assertEquals(10000, database.getRelationshipBalance(bill));
+        assertEquals(ResultCode.INSUFFICIENT_FUNDS, database.withdraw(
+                AccountType.CHECKING, bill, 10001));
+        assertEquals(10000, database.getRelationshipBalance(bill));
+        assertEquals(ResultCode.OK, database.checkWithdraw(
+                AccountType.CHECKING, bill, 10000));
+        assertEquals(10000, database.getRelationshipBalance(bill));
+        assertEquals(ResultCode.OK, database.withdraw(
+                AccountType.CHECKING, bill, 10000));
+        assertEquals(0, database.getRelationshipBalance(bill));
+    }
+
+    /**
+     * Test case #11
+     * Tests if only applied Money Market withdrawals are counted, checks
+     * and deposits are not, and the loyalty follows the balance
+     */
+    @org.junit.Test
+    public void test_MoneyMarketWithdrawals() {
+        AccountDatabase database = new AccountDatabase();
+        Profile ada = new Profile("Ada", "Lovelace", new Date(1990, 12, 10));
+        database.open(new MoneyMarket(ada, 250000));
+        database.withdraw(AccountType.MONEY_MARKET, ada, 10000);
+        database.withdraw(AccountType.MONEY_MARKET, ada, 10000);
+        database.checkWithdraw(AccountType.MONEY_MARKET, ada, 10000);
+        database.deposit(AccountType.MONEY_MARKET, ada, 10000);
+        assertEquals(ResultCode.INSUFFICIENT_FUNDS, database.withdraw(
+                AccountType.MONEY_MARKET, ada, 1000000));
+        MoneyMarket stored = (MoneyMarket) database.getAccounts(ada)[0];
+        assertEquals(2, stored.getWithdrawals());
+        assertTrue(stored.isLoyal());
+        database.withdraw(AccountType.MONEY_MARKET, ada, 50000);
+        assertEquals(3, stored.getWithdrawals());
+        assertFalse(stored.isLoyal());
+    }
+}
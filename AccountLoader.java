@@ -0,0 +1,271 @@
+package com.banking;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Loads accounts in bulk from a file of lines in the format
+ * type,first,last,mm/dd/yyyy,deposit[,campus code|loyalty].
+ * Lines are read in chunks, each chunk is parsed in parallel,
+ * and the valid accounts are added to the database in one batch.
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class AccountLoader {
+    private final AccountDatabase acctDb;
+    private final TransactionJournal journal; //null if not journaled
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int CHUNK_LINES = 1 << 16;
+    private static final int RADIX = 10;
+    private static final String MISSING_DATA =
+            "Missing data for opening an account.\n";
+
+    /**
+     * Creates a loader that adds accounts to the specified database
+     * @param acctDb the account database
+     */
+    public AccountLoader(AccountDatabase acctDb) {
+        this(acctDb, null);
+    }
+
+    /**
+     * Creates a loader that adds accounts to the specified database and
+     * logs them to the journal before adding them, committing once per
+     * chunk; an account that turns out to exist already is refused again
+     * when the journal is replayed
+     * @param acctDb the account database
+     * @param journal journal the opened accounts are logged to
+     */
+    public AccountLoader(AccountDatabase acctDb, TransactionJournal journal) {
+        this.acctDb = acctDb;
+        this.journal = journal;
+    }
+
+    /**
+     * Loads every account in the file, skipping the lines that are not
+     * valid instead of stopping the load
+     * @param source the file to load
+     * @return number of accounts added and the error of each bad line
+     * @throws IOException if the file cannot be read
+     */
+    public LoadResult load(Path source) throws IOException {
+        return load(source, linesRead -> { });
+    }
+
+    /**
+     * Loads every account in the file, skipping the lines that are not
+     * valid, and reports the progress after each chunk
+     * @param source the file to load
+     * @param progress receives the number of lines read so far
+     * @return number of accounts added and the error of each bad line
+     * @throws IOException if the file cannot be read
+     */
+    public LoadResult load(Path source, IntConsumer progress)
+            throws IOException {
+        LoadResult result = new LoadResult();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                Files.newInputStream(source), StandardCharsets.UTF_8),
+                BUFFER_SIZE)) {
+            String[] lines = new String[CHUNK_LINES];
+            int firstLine = 1;
+            int count;
+            do {
+                count = 0;
+                String line;
+                while (count < CHUNK_LINES
+                        && (line = reader.readLine()) != null) {
+                    lines[count++] = line;
+                }
+                loadChunk(lines, count, firstLine, result);
+                firstLine += count;
+                progress.accept(firstLine - 1);
+            } while (count == CHUNK_LINES);
+        }
+        return result;
+    }
+
+    /**
+     * Parses a chunk of lines in parallel and adds the valid accounts
+     * @param lines the lines of the chunk
+     * @param count number of lines in the chunk
+     * @param firstLine line number of the first line in the chunk
+     * @param result result the chunk is recorded in
+     */
+    private void loadChunk(String[] lines, int count, int firstLine,
+                           LoadResult result) {
+        Account[] parsed = new Account[count];
+        String[] errors = new String[count];
+        IntStream.range(0, count).parallel().forEach(i -> {
+            try {
+                parsed[i] = parseLine(lines[i]);
+            }
+            catch (IllegalArgumentException e) {
+                errors[i] = e.getMessage();
+            }
+        });
+
+        List<Account> batch = new ArrayList<>(count);
+        int[] batchLines = new int[count];
+        for (int i = 0; i < count; ++i) {
+            if (parsed[i] != null) {
+                batchLines[batch.size()] = i;
+                batch.add(parsed[i]);
+            }
+        }
+        if (journal != null && !batch.isEmpty()) {
+            journal.logOpens(batch);
+        }
+        BitSet opened = acctDb.openAll(batch);
+        result.loaded += opened.cardinality();
+        for (int i = opened.nextClearBit(0); i < batch.size();
+             i = opened.nextClearBit(i + 1)) {
+            Account acct = batch.get(i);
+            errors[batchLines[i]] = Command.open(acct.getType(),
+                    acct.getProfile(), acct.getBalance(), null, false)
+                    .message(ResultCode.ALREADY_EXISTS);
+        }
+        for (int i = 0; i < count; ++i) {
+            if (errors[i] != null) {
+                result.errors.add("Line " + (firstLine + i) + ": " + errors[i]);
+            }
+        }
+    }
+
+    /**
+     * Parses an account from a line without regular expressions
+     * @param line the input account
+     * @return account, or null if the line is blank
+     * @throws IllegalArgumentException if the line is not a valid account
+     */
+    private static Account parseLine(String line) {
+        if (line.isBlank()) {
+            return null;
+        }
+        int typeEnd = fieldEnd(line, 0);
+        int fNameEnd = fieldEnd(line, typeEnd + 1);
+        int lNameEnd = fieldEnd(line, fNameEnd + 1);
+        int dobEnd = fieldEnd(line, lNameEnd + 1);
+        int depositEnd = fieldEnd(line, dobEnd + 1);
+        if (dobEnd >= line.length()) {
+            throw new IllegalArgumentException(MISSING_DATA);
+        }
+        AccountType type = AccountType.fromSymbol(line.substring(0, typeEnd));
+        if (type == null) {
+            throw new IllegalArgumentException("Invalid account type.\n");
+        }
+        Date dob = parseDate(line, lNameEnd + 1, dobEnd);
+        long deposit;
+        try {
+            deposit = Money.parse(line, dobEnd + 1, depositEnd);
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a valid amount.\n");
+        }
+
+        int extraEnd = fieldEnd(line, depositEnd + 1);
+        boolean hasExtra = depositEnd < line.length();
+        Campus campus = null;
+        if (type == AccountType.COLLEGE_CHECKING) {
+            if (hasExtra) {
+                campus = Campus.fromCode(
+                        parseInt(line, depositEnd + 1, extraEnd));
+            }
+            if (campus == null) {
+                throw new IllegalArgumentException("Invalid campus code.\n");
+            }
+        }
+        boolean isLoyal = hasExtra && extraEnd == depositEnd + 2
+                && line.charAt(depositEnd + 1) == '1';
+
+        Profile profile = new Profile(line.substring(typeEnd + 1, fNameEnd),
+                line.substring(fNameEnd + 1, lNameEnd), dob);
+        ResultCode result = AccountValidator.checkOpen(type, profile, deposit);
+        if (!result.isOk()) {
+            throw new IllegalArgumentException(Command.open(type, profile,
+                    deposit, campus, isLoyal).message(result));
+        }
+        return TransactionEngine.makeAccount(type, profile, deposit, campus,
+                isLoyal);
+    }
+
+    /**
+     * Returns the end of the comma separated field starting at the index
+     * @param line the input line
+     * @param start index of the first character of the field
+     * @return index of the next comma, or the length of the line
+     */
+    private static int fieldEnd(String line, int start) {
+        if (start > line.length()) {
+            return line.length();
+        }
+        int comma = line.indexOf(',', start);
+        return comma < 0 ? line.length() : comma;
+    }
+
+    /**
+     * Parses a date in the format mm/dd/yyyy from part of a line
+     * @param line the input line
+     * @param start index of the first character of the date
+     * @param end index after the last character of the date
+     * @return date
+     * @throws IllegalArgumentException if the date is not in the format
+     */
+    private static Date parseDate(String line, int start, int end) {
+        try {
+            return Date.parse(line, start, end);
+        }
+        catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(MISSING_DATA);
+        }
+    }
+
+    /**
+     * Parses a whole number from part of a line
+     * @param line the input line
+     * @param start index of the first digit
+     * @param end index after the last digit
+     * @return the number
+     * @throws IllegalArgumentException if the characters are not a number
+     */
+    private static int parseInt(String line, int start, int end) {
+        try {
+            return Integer.parseInt(line, start, end, RADIX);
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException(MISSING_DATA);
+        }
+    }
+
+    /**
+     * Represents the outcome of loading a file
+     */
+    public static class LoadResult {
+        private int loaded;
+        private final List<String> errors = new ArrayList<>();
+
+        /**
+         * Returns the number of accounts added to the database
+         * @return number of accounts added
+         */
+        public int getLoaded() {
+            return loaded;
+        }
+
+        /**
+         * Returns the error of each line that was not loaded, in line order
+         * @return errors prefixed with their line number
+         */
+        public List<String> getErrors() {
+            return errors;
+        }
+    }
+}
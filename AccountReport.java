@@ -0,0 +1,182 @@
+package com.banking;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Represents a report of the account database as a fixed snapshot of the
+ * accounts sorted by account type and profile. Taking the snapshot copies
+ * the accounts but formats none of them; each row is formatted only when
+ * it is asked for, so a view can show a report of any size by formatting
+ * just the rows on screen. The accounts are copied because the ones in
+ * the database keep changing on the thread running transactions.
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public final class AccountReport {
+    private final ReportType type;
+    private final Account[] rows; //copies sorted by account type and profile
+    private final int[] sections; //first row of each account type, then the row count
+    private final RateTable rates; //rate table when the report was taken
+
+    private static final int NOT_FOUND = -1;
+    private static final int EMPTY = 0;
+
+    /**
+     * Creates a report over sorted account copies
+     * @param type the report
+     * @param rows copies of the accounts sorted by account type and profile
+     * @param rates rate table the fees and interests are shown under
+     */
+    private AccountReport(ReportType type, Account[] rows, RateTable rates) {
+        this.type = type;
+        this.rows = rows;
+        this.sections = sectionsOf(rows);
+        this.rates = rates;
+    }
+
+    /**
+     * Takes a snapshot of the accounts in the database for a report on
+     * the thread that runs the transactions. Interests and fees of an
+     * updated balances report must already have been applied.
+     * @param type the report
+     * @param acctDb the account database
+     * @return the report
+     */
+    public static AccountReport of(ReportType type, AccountDatabase acctDb) {
+        Account[] rows = acctDb.toArray();
+        for (int i = 0; i < rows.length; ++i) {
+            rows[i] = rows[i].copy();
+        }
+        return new AccountReport(type, rows, RateTable.current());
+    }
+
+    /**
+     * Finds where each account type starts in the sorted rows
+     * @param rows accounts sorted by account type and profile
+     * @return first row of each account type, followed by the row count
+     */
+    private static int[] sectionsOf(Account[] rows) {
+        int[] starts = new int[AccountType.values().length + 1];
+        int count = 0;
+        int start = 0;
+        while (start < rows.length) {
+            starts[count++] = start;
+            String acctType = rows[start].getAcctType();
+            int low = start + 1;
+            int high = rows.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (rows[mid].getAcctType().compareTo(acctType) <= 0) {
+                    low = mid + 1;
+                }
+                else {
+                    high = mid;
+                }
+            }
+            start = low;
+        }
+        starts[count++] = rows.length;
+        return Arrays.copyOf(starts, count);
+    }
+
+    /**
+     * Returns the kind of report
+     * @return the report
+     */
+    public ReportType getType() {
+        return type;
+    }
+
+    /**
+     * Returns the number of rows in the report
+     * @return number of accounts
+     */
+    public int size() {
+        return rows.length;
+    }
+
+    /**
+     * Returns the title line of the report
+     * @return title of the report
+     */
+    public String getTitle() {
+        if (rows.length == EMPTY) {
+            return "banking.Account Database is empty!";
+        }
+        switch (type) {
+            case ACCOUNTS:
+                return "*Accounts sorted by account type and profile.";
+            case FEES_AND_INTERESTS:
+                return "*list of accounts with fee and monthly interest";
+            default:
+                return "*list of accounts with fees and interests applied.";
+        }
+    }
+
+    /**
+     * Returns the rows of the report as a read-only list that formats
+     * nothing
+     * @return the accounts in report order
+     */
+    public List<Account> getRows() {
+        return new AbstractList<Account>() {
+            @Override
+            public Account get(int index) {
+                return rows[index];
+            }
+
+            @Override
+            public int size() {
+                return rows.length;
+            }
+        };
+    }
+
+    /**
+     * Formats one row of the report
+     * @param acct account of the row
+     * @return the row, without a line break
+     */
+    public String format(Account acct) {
+        StringBuilder row = acct.appendTo(new StringBuilder());
+        if (type == ReportType.FEES_AND_INTERESTS) {
+            acct.appendFeesAndInterests(row, rates);
+        }
+        return row.toString();
+    }
+
+    /**
+     * Finds the first row at or after a row whose holder's last name
+     * starts with the prefix, ignoring case. Each account type is
+     * searched by binary search, so no rows are formatted.
+     * @param prefix beginning of the last name
+     * @param from row the search starts at
+     * @return the row, or -1 if there is none
+     */
+    public int find(String prefix, int from) {
+        for (int s = 0; s + 1 < sections.length; ++s) {
+            int low = Math.max(sections[s], from);
+            int high = sections[s + 1];
+            if (low >= high) {
+                continue;
+            }
+            int end = high;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (rows[mid].getProfile().getLname()
+                        .compareToIgnoreCase(prefix) < 0) {
+                    low = mid + 1;
+                }
+                else {
+                    high = mid;
+                }
+            }
+            if (low < end && rows[low].getProfile().getLname()
+                    .regionMatches(true, 0, prefix, 0, prefix.length())) {
+                return low;
+            }
+        }
+        return NOT_FOUND;
+    }
+}
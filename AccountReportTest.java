@@ -0,0 +1,63 @@
+package banking;
+
+import static org.junit.Assert.*;
+
+import java.util.Properties;
+
+/**
+ * Tests the AccountReport class
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class AccountReportTest {
+    private static final Profile BILL = new Profile("Bill", "Gates",
+            new Date(1976, 1, 1));
+    private static final Profile JANE = new Profile("Jane", "Doe",
+            new Date(1980, 5, 5));
+
+    /**
+     * Test case #1
+     * Tests if a report keeps showing the accounts as they were when it
+     * was taken while transactions keep changing the database
+     */
+    @org.junit.Test
+    public void test_SnapshotIsolation() {
+        TransactionEngine engine = new TransactionEngine(new AccountDatabase());
+        engine.open(AccountType.CHECKING, BILL, 10000, null, false);
+        engine.open(AccountType.SAVINGS, JANE, 50000, null, true);
+        AccountReport report = engine.report(ReportType.FEES_AND_INTERESTS);
+        String before = report.format(report.getRows().get(0));
+        engine.deposit(AccountType.CHECKING, BILL, 90000);
+        engine.close(AccountType.SAVINGS, JANE);
+        engine.open(AccountType.MONEY_MARKET, JANE, 300000, null, false);
+        Properties config = new Properties();
+        config.setProperty("C.rate", "1200");
+        RateTable.install(RateTable.parse(config));
+        try {
+            assertEquals(2, report.size());
+            assertEquals(before, report.format(report.getRows().get(0)));
+            assertEquals(AccountType.SAVINGS,
+                    report.getRows().get(1).getType());
+        }
+        finally {
+            RateTable.install(RateTable.DEFAULT);
+        }
+    }
+
+    /**
+     * Test case #2
+     * Tests if finding a last name prefix searches every account type
+     * from the row it starts at
+     */
+    @org.junit.Test
+    public void test_Find() {
+        TransactionEngine engine = new TransactionEngine(new AccountDatabase());
+        engine.open(AccountType.CHECKING, BILL, 10000, null, false);
+        engine.open(AccountType.CHECKING, JANE, 10000, null, false);
+        engine.open(AccountType.SAVINGS, BILL, 10000, null, false);
+        AccountReport report = engine.report(ReportType.ACCOUNTS);
+        assertEquals(0, report.find("do", 0));
+        assertEquals(1, report.find("GA", 0));
+        assertEquals(2, report.find("ga", 2));
+        assertEquals(-1, report.find("doe", 1));
+    }
+}
@@ -0,0 +1,96 @@
+package com.banking;
+
+import javafx.collections.FXCollections;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.stage.Stage;
+
+/**
+ * Shows a report in its own window as a list that creates and formats
+ * only the rows on screen, with a search that jumps to the next account
+ * of a holder by the beginning of the last name.
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class AccountReportWindow {
+    private final AccountReport report;
+    private final ListView<Account> rows;
+    private final TextField lastName;
+    private final Label status;
+    private final BorderPane root;
+
+    private static final double ROW_HEIGHT = 24;
+    private static final double WIDTH = 640;
+    private static final double HEIGHT = 600;
+    private static final double SPACING = 10;
+    private static final int NOT_FOUND = -1;
+
+    /**
+     * Creates the window contents for a report
+     * @param report the report
+     */
+    private AccountReportWindow(AccountReport report) {
+        this.report = report;
+        rows = new ListView<>(FXCollections.observableList(report.getRows()));
+        rows.setFixedCellSize(ROW_HEIGHT);
+        rows.setCellFactory(list -> new ListCell<Account>() {
+            @Override
+            protected void updateItem(Account acct, boolean isEmpty) {
+                super.updateItem(acct, isEmpty);
+                setText(isEmpty || acct == null ? null : report.format(acct));
+            }
+        });
+        lastName = new TextField();
+        lastName.setPromptText("Last name");
+        lastName.setOnAction(event -> findNext());
+        Button find = new Button("Find");
+        find.setOnAction(event -> findNext());
+        status = new Label(report.size() + " accounts");
+        HBox search = new HBox(SPACING, lastName, find, status);
+        search.setPadding(new Insets(SPACING));
+        root = new BorderPane(rows);
+        root.setTop(search);
+    }
+
+    /**
+     * Opens a window showing the report
+     * @param report the report
+     */
+    public static void show(AccountReport report) {
+        AccountReportWindow window = new AccountReportWindow(report);
+        Stage stage = new Stage();
+        stage.setTitle(report.getTitle());
+        stage.setScene(new Scene(window.root, WIDTH, HEIGHT));
+        stage.show();
+    }
+
+    /**
+     * Selects and scrolls to the next account whose holder's last name
+     * starts with the text in the search field, starting over from the
+     * top once the end is reached
+     */
+    private void findNext() {
+        String prefix = lastName.getText().trim();
+        if (prefix.isEmpty()) {
+            return;
+        }
+        int row = report.find(prefix,
+                rows.getSelectionModel().getSelectedIndex() + 1);
+        if (row == NOT_FOUND) {
+            row = report.find(prefix, 0);
+        }
+        if (row == NOT_FOUND) {
+            status.setText("No holder named " + prefix + "...");
+            return;
+        }
+        status.setText("Row " + (row + 1) + " of " + report.size());
+        rows.getSelectionModel().select(row);
+        rows.scrollTo(row);
+    }
+}
@@ -0,0 +1,234 @@
+package com.banking;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Saves every account of a database to a compact binary snapshot and
+ * loads it back through a memory-mapped file. A snapshot records the
+ * journal position it is consistent with, so recovery loads the snapshot
+ * and replays only the journal records after that position.
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public final class AccountSnapshot {
+    private static final int MAGIC = 0x544D5331; //"TMS1"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 20; //magic, version, position, count
+    private static final int FIXED_RECORD_BYTES = 23; //everything except names
+    private static final int MAX_NAME_BYTES = 0xFFFF;
+    private static final int MAX_RECORD_BYTES =
+            FIXED_RECORD_BYTES + 2 * MAX_NAME_BYTES;
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final long MAX_WINDOW_BYTES = 1L << 30;
+    private static final byte NO_CAMPUS = -1;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 0;
+    private static final int NONE = 0;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * Prevents instantiation, all operations are static
+     */
+    private AccountSnapshot() {
+    }
+
+    /**
+     * Writes a snapshot of the database. The snapshot is written to a
+     * temporary file that then replaces the target in one atomic move,
+     * so a crash never leaves a partial snapshot behind. Records are
+     * written through a fixed buffer, replaced by a larger one for a
+     * record with names too long to fit.
+     * @param acctDb the account database
+     * @param logPosition journal position the database is consistent with
+     * @param file the snapshot file
+     * @throws IOException if the snapshot cannot be written
+     */
+    public static void write(AccountDatabase acctDb, long logPosition,
+                             Path file) throws IOException {
+        Account[] accts = acctDb.toArray();
+        Path temp = file.resolveSibling(file.getFileName() + TEMP_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(logPosition)
+                    .putInt(accts.length);
+            for (Account acct : accts) {
+                byte[] fname = encode(acct.getProfile().getFname());
+                byte[] lname = encode(acct.getProfile().getLname());
+                int size = FIXED_RECORD_BYTES + fname.length + lname.length;
+                if (buffer.remaining() < size) {
+                    drain(buffer, channel);
+                    if (buffer.capacity() < size) {
+                        buffer = ByteBuffer.allocateDirect(size);
+                    }
+                }
+                putAccount(buffer, acct, fname, lname);
+            }
+            drain(buffer, channel);
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads the accounts of a snapshot into the database
+     * @param file the snapshot file
+     * @param acctDb database the accounts are added to
+     * @return journal position the snapshot is consistent with
+     * @throws IOException if the snapshot cannot be read or is not valid
+     */
+    public static long load(Path file, AccountDatabase acctDb)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.READ)) {
+            long size = channel.size();
+            long offset = 0;
+            MappedByteBuffer buffer = map(channel, offset, size);
+            if (size < HEADER_BYTES || buffer.getInt() != MAGIC
+                    || buffer.getInt() != VERSION) {
+                throw new IOException("Not an account snapshot: " + file);
+            }
+            long logPosition = buffer.getLong();
+            int count = buffer.getInt();
+            List<Account> accts = new ArrayList<>(count);
+            byte[] scratch = new byte[MAX_NAME_BYTES];
+            for (int i = 0; i < count; ++i) {
+                if (buffer.remaining() < MAX_RECORD_BYTES
+                        && offset + buffer.limit() < size) {
+                    offset += buffer.position();
+                    buffer = map(channel, offset, size);
+                }
+                accts.add(getAccount(buffer, scratch));
+            }
+            acctDb.ensureCapacity(acctDb.size() + count);
+            acctDb.openAll(accts);
+            return logPosition;
+        }
+        catch (RuntimeException e) {
+            throw new IOException("Corrupt account snapshot: " + file, e);
+        }
+    }
+
+    /**
+     * Maps a window of the snapshot file
+     * @param channel channel of the snapshot file
+     * @param offset file position the window starts at
+     * @param size size of the snapshot file
+     * @return the mapped window
+     * @throws IOException if the file cannot be mapped
+     */
+    private static MappedByteBuffer map(FileChannel channel, long offset,
+                                        long size) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset,
+                Math.min(size - offset, MAX_WINDOW_BYTES));
+    }
+
+    /**
+     * Writes an account record into the buffer
+     * @param buffer destination buffer
+     * @param acct the account
+     * @param fname encoded first name of the holder
+     * @param lname encoded last name of the holder
+     */
+    private static void putAccount(ByteBuffer buffer, Account acct,
+                                   byte[] fname, byte[] lname) {
+        Date dob = acct.getProfile().getDOB();
+        byte campus = NO_CAMPUS;
+        boolean isLoyal = false;
+        int withdrawals = NONE;
+        if (acct instanceof CollegeChecking) {
+            campus = (byte) ((CollegeChecking) acct).getCampus()
+                    .getCampusCode();
+        }
+        if (acct instanceof Savings) {
+            isLoyal = ((Savings) acct).isLoyal();
+        }
+        if (acct instanceof MoneyMarket) {
+            withdrawals = ((MoneyMarket) acct).getWithdrawals();
+        }
+        buffer.put((byte) acct.getType().getTypeCode());
+        buffer.putShort((short) fname.length).put(fname);
+        buffer.putShort((short) lname.length).put(lname);
+        buffer.putInt(dob.toPacked());
+        buffer.putLong(acct.getBalance());
+        buffer.put(isLoyal ? TRUE : FALSE);
+        buffer.put(campus);
+        buffer.putInt(withdrawals);
+    }
+
+    /**
+     * Reads an account record from the buffer
+     * @param buffer source buffer
+     * @param scratch buffer for decoding names
+     * @return the account
+     */
+    private static Account getAccount(ByteBuffer buffer, byte[] scratch) {
+        AccountType type = AccountType.fromCode(buffer.get());
+        String fname = getString(buffer, scratch);
+        String lname = getString(buffer, scratch);
+        Profile holder = new Profile(fname, lname,
+                Date.fromPacked(buffer.getInt()));
+        long balance = buffer.getLong();
+        boolean isLoyal = buffer.get() == TRUE;
+        Campus campus = Campus.fromCode(buffer.get());
+        int withdrawals = buffer.getInt();
+        Account acct = TransactionEngine.makeAccount(type, holder, balance,
+                campus, isLoyal);
+        if (acct instanceof MoneyMarket) {
+            ((MoneyMarket) acct).restore(isLoyal, withdrawals);
+        }
+        return acct;
+    }
+
+    /**
+     * Encodes a name in UTF-8
+     * @param name the name
+     * @return encoded name
+     * @throws IllegalArgumentException if the name is too long to save
+     */
+    private static byte[] encode(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Name too long: " + name);
+        }
+        return bytes;
+    }
+
+    /**
+     * Reads a length-prefixed UTF-8 string
+     * @param buffer source buffer
+     * @param scratch buffer for decoding the string
+     * @return the string
+     */
+    private static String getString(ByteBuffer buffer, byte[] scratch) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        buffer.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the contents of the buffer to the channel and clears it
+     * @param buffer buffer in write mode
+     * @param channel destination channel
+     * @throws IOException if the channel cannot be written
+     */
+    private static void drain(ByteBuffer buffer, FileChannel channel)
+            throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
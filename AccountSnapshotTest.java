@@ -0,0 +1,85 @@
+package banking;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Tests the AccountSnapshot class
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class AccountSnapshotTest {
+    private static final Profile BILL = new Profile("Bill", "Gates",
+            new Date(1976, 1, 1));
+
+    @org.junit.Rule
+    public org.junit.rules.TemporaryFolder folder =
+            new org.junit.rules.TemporaryFolder();
+
+    /**
+     * Test case #1
+     * Tests if every kind of account, including one whose names are
+     * longer than the write buffer, is loaded back unchanged along with
+     * the journal position
+     */
+    @org.junit.Test
+    public void test_RoundTrip() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("snapshot");
+        char[] longName = new char[40000];
+        Arrays.fill(longName, 'a');
+        Profile jane = new Profile("Jane", "Doe", new Date(2003, 5, 5));
+        AccountDatabase acctDb = new AccountDatabase();
+        acctDb.open(new Checking(BILL, 10025));
+        acctDb.open(new Savings(BILL, 50000, true));
+        acctDb.open(new CollegeChecking(jane, 1250, Campus.CAMDEN));
+        MoneyMarket moneyMarket = new MoneyMarket(jane, 300000);
+        acctDb.open(moneyMarket);
+        acctDb.withdraw(new MoneyMarket(jane, 100));
+        acctDb.withdraw(new MoneyMarket(jane, 100));
+        acctDb.open(new Savings(new Profile(new String(longName),
+                new String(longName), new Date(1990, 2, 3)), 100, false));
+        AccountSnapshot.write(acctDb, 1234, file);
+        AccountDatabase loaded = new AccountDatabase();
+        assertEquals(1234, AccountSnapshot.load(file, loaded));
+        assertEquals(acctDb.printSorted(), loaded.printSorted());
+        assertEquals(2, ((MoneyMarket) loaded.getAccounts(jane)[1])
+                .getWithdrawals());
+    }
+
+    /**
+     * Test case #2
+     * Tests if a transaction store recovers its snapshot and the
+     * transactions logged after it
+     */
+    @org.junit.Test
+    public void test_StoreRecovery() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (TransactionStore store = open(directory)) {
+            store.getEngine().open(AccountType.CHECKING, BILL, 10000, null,
+                    false);
+        }
+        TransactionStore crashed = open(directory);
+        assertEquals(10000, crashed.getDatabase()
+                .getRelationshipBalance(BILL));
+        crashed.getEngine().deposit(AccountType.CHECKING, BILL, 250);
+        crashed.getJournal().close();
+        try (TransactionStore store = open(directory)) {
+            assertEquals(1, store.getDatabase().size());
+            assertEquals(10250, store.getDatabase()
+                    .getRelationshipBalance(BILL));
+        }
+    }
+
+    /**
+     * Opens a transaction store forcing every record to disk
+     * @param directory directory of the store
+     * @return the store
+     * @throws IOException if the store cannot be opened
+     */
+    private static TransactionStore open(Path directory) throws IOException {
+        return TransactionStore.open(directory,
+                TransactionJournal.Durability.PER_OPERATION);
+    }
+}
@@ -0,0 +1,83 @@
+package com.banking;
+
+/**
+ * Represents the predefined account types and the account family
+ * each one belongs to
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public enum AccountType {
+    CHECKING (0, "C"),
+    COLLEGE_CHECKING (1, "CC"),
+    SAVINGS (2, "S"),
+    MONEY_MARKET (3, "MM");
+
+    private final int typeCode;
+    private final String symbol;
+
+    private static final AccountType[] TYPES = values(); //indexed by type code
+
+    /**
+     * Creates a predefined account type with its type code and
+     * account symbol
+     * @param typeCode type code stored in binary records
+     * @param symbol account symbol
+     */
+    AccountType(int typeCode, String symbol) {
+        this.typeCode = typeCode;
+        this.symbol = symbol;
+    }
+
+    /**
+     * Returns the type code stored in binary records
+     * @return type code
+     */
+    public int getTypeCode() {
+        return typeCode;
+    }
+
+    /**
+     * Returns the account symbol
+     * @return account symbol
+     */
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Returns the account family of this type. A holder can have at most
+     * one account per family, so Checking and College Checking share one.
+     * @return account family
+     */
+    public AccountType family() {
+        if (this == COLLEGE_CHECKING) {
+            return CHECKING;
+        }
+        return this;
+    }
+
+    /**
+     * Returns the account type that corresponds to the type code
+     * @param typeCode type code
+     * @return account type if it exists, null otherwise
+     */
+    public static AccountType fromCode(int typeCode) {
+        if (typeCode < 0 || typeCode >= TYPES.length) {
+            return null;
+        }
+        return TYPES[typeCode];
+    }
+
+    /**
+     * Returns the account type that corresponds to the account symbol
+     * @param symbol account symbol
+     * @return account type if it exists, null otherwise
+     */
+    public static AccountType fromSymbol(String symbol) {
+        for (AccountType type : values()) {
+            if (type.symbol.equals(symbol)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
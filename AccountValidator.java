@@ -0,0 +1,115 @@
+package com.banking;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Checks the rules an account holder and initial deposit must satisfy
+ * before an account can be opened
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public final class AccountValidator {
+    private static final long EMPTY = 0;
+    private static final int MIN_AGE = 16;
+    private static final int COLLEGE_MAX_AGE = 24;
+    private static final long MIN_MONEYMARKET_DEPOSIT = 200000; //cents
+    private static final int MAX_UTF8_BYTES_PER_CHAR = 3;
+
+    public static final int MAX_NAME_BYTES = 0xFFFF; //names are stored after a 2-byte length
+
+    /**
+     * Prevents instantiation, all checks are static
+     */
+    private AccountValidator() {
+    }
+
+    /**
+     * Checks whether the date of birth is valid
+     * @param dob date of birth of account holder
+     * @return OK if dob is valid, the rule it breaks otherwise
+     */
+    public static ResultCode checkDob(Date dob) {
+        if (!dob.isValid()) {
+            return ResultCode.INVALID_DATE;
+        }
+        if (dob.isToday_Or_FutureDate()) {
+            return ResultCode.FUTURE_DATE;
+        }
+        return ResultCode.OK;
+    }
+
+    /**
+     * Checks whether the names of an account holder fit in the journal,
+     * snapshot and binary protocol, encoding a name only if it may not
+     * @param holder account holder's profile
+     * @return OK if the names fit, NAME_TOO_LONG otherwise
+     */
+    public static ResultCode checkNames(Profile holder) {
+        if (!fits(holder.getFname()) || !fits(holder.getLname())) {
+            return ResultCode.NAME_TOO_LONG;
+        }
+        return ResultCode.OK;
+    }
+
+    /**
+     * Checks whether a name is at most MAX_NAME_BYTES in UTF-8
+     * @param name the name
+     * @return true if the name fits, false otherwise
+     */
+    private static boolean fits(String name) {
+        return name.length() * MAX_UTF8_BYTES_PER_CHAR <= MAX_NAME_BYTES
+                || name.getBytes(StandardCharsets.UTF_8).length
+                <= MAX_NAME_BYTES;
+    }
+
+    /**
+     * Checks whether the campus code given to open an account names a
+     * campus, leaving a code that was not given to be reported as missing
+     * @param type account type
+     * @param campusCode campus code, Command.NO_CAMPUS if not given
+     * @return OK if the code is not needed, not given or names a campus,
+     *         INVALID_CAMPUS otherwise
+     */
+    public static ResultCode checkCampus(AccountType type, int campusCode) {
+        if (type != AccountType.COLLEGE_CHECKING
+                || campusCode == Command.NO_CAMPUS
+                || Campus.fromCode(campusCode) != null) {
+            return ResultCode.OK;
+        }
+        return ResultCode.INVALID_CAMPUS;
+    }
+
+    /**
+     * Checks whether the credentials for opening an account are valid
+     * @param type account type
+     * @param holder account holder's profile
+     * @param deposit initial deposit in cents
+     * @return OK if the credentials are valid, the rule they break otherwise
+     */
+    public static ResultCode checkOpen(AccountType type, Profile holder,
+                                       long deposit) {
+        ResultCode namesResult = checkNames(holder);
+        if (!namesResult.isOk()) {
+            return namesResult;
+        }
+        Date dob = holder.getDOB();
+        ResultCode dobResult = checkDob(dob);
+        if (!dobResult.isOk()) {
+            return dobResult;
+        }
+        int age = dob.getAge();
+        if (age < MIN_AGE) {
+            return ResultCode.UNDER_AGE;
+        }
+        if (deposit <= EMPTY) {
+            return ResultCode.NON_POSITIVE_AMOUNT;
+        }
+        if (type == AccountType.COLLEGE_CHECKING && age >= COLLEGE_MAX_AGE) {
+            return ResultCode.OVER_COLLEGE_AGE;
+        }
+        if (type == AccountType.MONEY_MARKET
+                && deposit < MIN_MONEYMARKET_DEPOSIT) {
+            return ResultCode.BELOW_MINIMUM_DEPOSIT;
+        }
+        return ResultCode.OK;
+    }
+}
@@ -0,0 +1,372 @@
+package com.banking;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Encodes and decodes the binary form of the transaction commands, for
+ * clients that send many commands at once. A request frame is a 4-byte
+ * length followed by that many bytes: a 2-byte command count, then the
+ * commands. Each command is an op byte ('O', 'C', 'D' or 'W'), the type
+ * code of the account symbol (C 0, CC 1, S 2, MM 3), the first and last
+ * names as 2-byte lengths and UTF-8 bytes, and the date of birth packed
+ * as year * 2^16 + month * 2^8 + day. Deposits and withdrawals add the
+ * amount in cents as 8 bytes; an open adds the initial deposit, the
+ * campus code (-1 if none) and a loyalty byte. The response frame is a
+ * 4-byte length, a kind byte, a 2-byte count and one ResultCode code
+ * byte per command, in the order of the commands. A results frame (kind
+ * 0) has a result for every command. If the server fails while running
+ * a batch, it sends an error frame (kind 1) instead: its results are
+ * those of the commands run before the failure, the command after them
+ * failed with an unknown effect and the rest were not run, and the
+ * frame ends with the failure message as a 2-byte length and UTF-8
+ * bytes. All numbers are big-endian.
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public final class BinaryProtocol {
+    public static final byte PREAMBLE = 0; //first byte sent by a binary client
+    public static final int MAX_FRAME_BYTES = 1 << 20;
+    public static final int MAX_COMMANDS = 0xFFFF;
+
+    private static final byte OPEN = 'O';
+    private static final byte CLOSE = 'C';
+    private static final byte DEPOSIT = 'D';
+    private static final byte WITHDRAW = 'W';
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 0;
+    private static final int LENGTH_BYTES = 4;
+    private static final int COUNT_BYTES = 2;
+    private static final int KIND_BYTES = 1;
+    private static final int MAX_NAME_BYTES = 0xFFFF;
+    private static final int MAX_MESSAGE_CHARS = 1024; //longer messages are cut
+    private static final byte RESULTS = 0;
+    private static final byte ERROR = 1;
+
+    /**
+     * Prevents instantiation, all operations are static
+     */
+    private BinaryProtocol() {
+    }
+
+    /**
+     * Writes a request frame holding a batch of commands
+     * @param out destination buffer
+     * @param commands commands other than printing
+     * @throws IllegalArgumentException if there are too many commands or
+     *         a command prints a report
+     * @throws BufferOverflowException if the frame does not fit
+     */
+    public static void putCommands(ByteBuffer out, List<Command> commands) {
+        if (commands.size() > MAX_COMMANDS) {
+            throw new IllegalArgumentException("Too many commands: "
+                    + commands.size());
+        }
+        int start = out.position();
+        out.position(start + LENGTH_BYTES);
+        out.putShort((short) commands.size());
+        for (Command command : commands) {
+            putCommand(out, command);
+        }
+        out.putInt(start, out.position() - start - LENGTH_BYTES);
+    }
+
+    /**
+     * Writes one command
+     * @param out destination buffer
+     * @param command command other than printing
+     * @throws IllegalArgumentException if the command prints a report
+     */
+    private static void putCommand(ByteBuffer out, Command command) {
+        out.put(opOf(command.getKind()));
+        out.put((byte) command.getType().getTypeCode());
+        Profile holder = command.getHolder();
+        putString(out, holder.getFname());
+        putString(out, holder.getLname());
+        out.putInt(holder.getDOB().toPacked());
+        if (command.getKind() == Command.Kind.CLOSE) {
+            return;
+        }
+        out.putLong(command.getAmount());
+        if (command.getKind() == Command.Kind.OPEN) {
+            out.put((byte) command.getCampusCode());
+            out.put(command.isLoyal() ? TRUE : FALSE);
+        }
+    }
+
+    /**
+     * Returns the op byte of a kind of transaction
+     * @param kind kind of transaction
+     * @return op byte
+     * @throws IllegalArgumentException if the kind prints a report
+     */
+    private static byte opOf(Command.Kind kind) {
+        switch (kind) {
+            case OPEN:
+                return OPEN;
+            case CLOSE:
+                return CLOSE;
+            case DEPOSIT:
+                return DEPOSIT;
+            case WITHDRAW:
+                return WITHDRAW;
+            default:
+                throw new IllegalArgumentException(
+                        "Reports cannot be sent in binary");
+        }
+    }
+
+    /**
+     * Reads the commands of a request frame, reading the names straight
+     * from the buffer
+     * @param body frame contents after the length
+     * @return the commands; an unknown account type is left out of the
+     *         command, so running it reports missing data, and an unknown
+     *         campus code is kept, so running it reports an invalid campus
+     * @throws IllegalArgumentException if the frame is not valid
+     */
+    public static Command[] getCommands(ByteBuffer body) {
+        try {
+            Command[] commands = new Command[Short.toUnsignedInt(
+                    body.getShort())];
+            for (int i = 0; i < commands.length; ++i) {
+                commands[i] = getCommand(body);
+            }
+            if (body.hasRemaining()) {
+                throw new IllegalArgumentException("Extra bytes in frame");
+            }
+            return commands;
+        }
+        catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated frame", e);
+        }
+    }
+
+    /**
+     * Reads one command
+     * @param body source buffer
+     * @return the command
+     * @throws IllegalArgumentException if the op byte is not valid
+     */
+    private static Command getCommand(ByteBuffer body) {
+        byte op = body.get();
+        AccountType type = AccountType.fromCode(body.get());
+        String fname = getString(body);
+        String lname = getString(body);
+        Profile holder = new Profile(fname, lname,
+                Date.fromPacked(body.getInt()));
+        switch (op) {
+            case OPEN:
+                long deposit = body.getLong();
+                int campusCode = body.get();
+                boolean isLoyal = body.get() == TRUE;
+                return Command.open(type, holder, deposit, campusCode,
+                        isLoyal);
+            case CLOSE:
+                return Command.close(type, holder);
+            case DEPOSIT:
+                return Command.deposit(type, holder, body.getLong());
+            case WITHDRAW:
+                return Command.withdraw(type, holder, body.getLong());
+            default:
+                throw new IllegalArgumentException("Unknown op " + op);
+        }
+    }
+
+    /**
+     * Writes a results frame holding the result of each command
+     * @param out destination buffer
+     * @param results result codes in the order of the commands
+     * @throws BufferOverflowException if the frame does not fit
+     */
+    public static void putResults(ByteBuffer out, byte[] results) {
+        out.putInt(KIND_BYTES + COUNT_BYTES + results.length);
+        out.put(RESULTS);
+        out.putShort((short) results.length);
+        out.put(results);
+    }
+
+    /**
+     * Writes an error frame for a batch the server failed on
+     * @param out destination buffer
+     * @param results result codes, the first count of which were produced
+     * @param count number of commands run before the failure
+     * @param message why the server failed
+     * @throws BufferOverflowException if the frame does not fit
+     */
+    public static void putError(ByteBuffer out, byte[] results, int count,
+                                String message) {
+        byte[] text = messageBytes(message);
+        out.putInt(KIND_BYTES + COUNT_BYTES + count + COUNT_BYTES
+                + text.length);
+        out.put(ERROR);
+        out.putShort((short) count);
+        out.put(results, 0, count);
+        out.putShort((short) text.length).put(text);
+    }
+
+    /**
+     * Returns the byte sent for a result
+     * @param result outcome of a command
+     * @return result code byte
+     */
+    public static byte toByte(ResultCode result) {
+        return (byte) result.getCode();
+    }
+
+    /**
+     * Reads a response frame
+     * @param body frame contents after the length
+     * @return the results, and the failure if the server failed
+     * @throws IllegalArgumentException if the frame is not valid
+     */
+    public static Response getResponse(ByteBuffer body) {
+        try {
+            byte kind = body.get();
+            if (kind != RESULTS && kind != ERROR) {
+                throw new IllegalArgumentException("Unknown frame kind "
+                        + kind);
+            }
+            ResultCode[] results = new ResultCode[Short.toUnsignedInt(
+                    body.getShort())];
+            for (int i = 0; i < results.length; ++i) {
+                int code = body.get();
+                results[i] = ResultCode.fromCode(code);
+                if (results[i] == null) {
+                    throw new IllegalArgumentException("Unknown result "
+                            + code);
+                }
+            }
+            String error = null;
+            if (kind == ERROR) {
+                error = getString(body);
+            }
+            if (body.hasRemaining()) {
+                throw new IllegalArgumentException("Extra bytes in frame");
+            }
+            return new Response(results, error);
+        }
+        catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated frame", e);
+        }
+    }
+
+    /**
+     * Returns the size of a results frame, including its length
+     * @param count number of results
+     * @return size in bytes
+     */
+    public static int resultsFrameBytes(int count) {
+        return LENGTH_BYTES + KIND_BYTES + COUNT_BYTES + count;
+    }
+
+    /**
+     * Returns the size of an error frame, including its length
+     * @param count number of commands run before the failure
+     * @param message why the server failed
+     * @return size in bytes
+     */
+    public static int errorFrameBytes(int count, String message) {
+        return resultsFrameBytes(count) + COUNT_BYTES
+                + messageBytes(message).length;
+    }
+
+    /**
+     * Encodes a failure message, cut to a bounded length
+     * @param message the message
+     * @return UTF-8 bytes of the message
+     */
+    private static byte[] messageBytes(String message) {
+        if (message.length() > MAX_MESSAGE_CHARS) {
+            message = message.substring(0, MAX_MESSAGE_CHARS);
+        }
+        return message.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a string as a 2-byte length and UTF-8 bytes
+     * @param out destination buffer
+     * @param value the string
+     * @throws IllegalArgumentException if the string is too long
+     */
+    private static void putString(ByteBuffer out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Name too long: " + value);
+        }
+        out.putShort((short) bytes.length).put(bytes);
+    }
+
+    /**
+     * Reads a string written by putString, decoding it in place when the
+     * buffer is backed by an array
+     * @param body source buffer
+     * @return the string
+     */
+    private static String getString(ByteBuffer body) {
+        int length = Short.toUnsignedInt(body.getShort());
+        if (length > body.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String value;
+        if (body.hasArray()) {
+            value = new String(body.array(),
+                    body.arrayOffset() + body.position(), length,
+                    StandardCharsets.UTF_8);
+            body.position(body.position() + length);
+        }
+        else {
+            byte[] bytes = new byte[length];
+            body.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    /**
+     * Represents a decoded response frame: the results of the commands
+     * the server ran and, if it failed on the batch, why
+     */
+    public static final class Response {
+        private final ResultCode[] results; //in the order of the commands
+        private final String error; //null if every command ran
+
+        /**
+         * Creates a response
+         * @param results results of the commands run
+         * @param error why the server failed, null if it did not
+         */
+        private Response(ResultCode[] results, String error) {
+            this.results = results;
+            this.error = error;
+        }
+
+        /**
+         * Returns the results of the commands run, in the order of the
+         * commands; after a failure these are the commands before the one
+         * the server failed on
+         * @return the results
+         */
+        public ResultCode[] getResults() {
+            return results;
+        }
+
+        /**
+         * Checks whether the server ran every command of the batch
+         * @return true if no failure was reported, false otherwise
+         */
+        public boolean isComplete() {
+            return error == null;
+        }
+
+        /**
+         * Returns why the server failed on the batch
+         * @return the failure message, null if it did not fail
+         */
+        public String getError() {
+            return error;
+        }
+    }
+}
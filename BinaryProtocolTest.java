@@ -0,0 +1,122 @@
+package banking;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Tests the BinaryProtocol class
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class BinaryProtocolTest {
+    private static final Profile BILL = new Profile("Bill", "Gates",
+            new Date(1976, 1, 1));
+    private static final Profile RENEE = new Profile("Ren\u00e9e", "Zo\u00eb",
+            new Date(2003, 12, 31));
+    private static final int LENGTH_BYTES = 4;
+
+    /**
+     * Test case #1
+     * Tests if every kind of command is read back as it was written
+     */
+    @org.junit.Test
+    public void test_CommandsRoundTrip() {
+        Command[] sent = {
+            Command.open(AccountType.COLLEGE_CHECKING, RENEE, 12345,
+                    Campus.CAMDEN, false),
+            Command.open(AccountType.SAVINGS, BILL, 50000, null, true),
+            Command.deposit(AccountType.CHECKING, BILL, Long.MAX_VALUE),
+            Command.withdraw(AccountType.MONEY_MARKET, RENEE, 1),
+            Command.close(AccountType.SAVINGS, BILL)
+        };
+        ByteBuffer frame = ByteBuffer.allocate(1024);
+        BinaryProtocol.putCommands(frame, Arrays.asList(sent));
+        frame.flip();
+        assertEquals(frame.remaining() - LENGTH_BYTES, frame.getInt());
+        Command[] read = BinaryProtocol.getCommands(frame);
+        assertEquals(sent.length, read.length);
+        for (int i = 0; i < sent.length; ++i) {
+            assertEquals(sent[i].getKind(), read[i].getKind());
+            assertEquals(sent[i].getType(), read[i].getType());
+            assertEquals(sent[i].getHolder(), read[i].getHolder());
+            assertEquals(sent[i].getHolder().getFname(),
+                    read[i].getHolder().getFname());
+            assertEquals(sent[i].getHolder().getLname(),
+                    read[i].getHolder().getLname());
+            assertEquals(sent[i].getCampus(), read[i].getCampus());
+            assertEquals(sent[i].isLoyal(), read[i].isLoyal());
+            if (sent[i].getKind() != Command.Kind.CLOSE) {
+                assertEquals(sent[i].getAmount(), read[i].getAmount());
+            }
+        }
+    }
+
+    /**
+     * Test case #2
+     * Tests if a results frame carries the fixed code of every outcome
+     */
+    @org.junit.Test
+    public void test_ResultsRoundTrip() {
+        ResultCode[] sent = ResultCode.values();
+        byte[] codes = new byte[sent.length];
+        for (int i = 0; i < sent.length; ++i) {
+            codes[i] = BinaryProtocol.toByte(sent[i]);
+        }
+        assertEquals(0, BinaryProtocol.toByte(ResultCode.OK));
+        assertEquals(11, BinaryProtocol.toByte(ResultCode.INSUFFICIENT_FUNDS));
+        ByteBuffer frame = ByteBuffer.allocate(
+                BinaryProtocol.resultsFrameBytes(codes.length));
+        BinaryProtocol.putResults(frame, codes);
+        assertFalse(frame.hasRemaining());
+        frame.flip();
+        assertEquals(frame.remaining() - LENGTH_BYTES, frame.getInt());
+        BinaryProtocol.Response response = BinaryProtocol.getResponse(frame);
+        assertTrue(response.isComplete());
+        assertNull(response.getError());
+        assertArrayEquals(sent, response.getResults());
+    }
+
+    /**
+     * Test case #3
+     * Tests if an error frame carries the results produced before the
+     * failure and the failure message
+     */
+    @org.junit.Test
+    public void test_ErrorRoundTrip() {
+        byte[] codes = {BinaryProtocol.toByte(ResultCode.OK),
+                BinaryProtocol.toByte(ResultCode.NOT_FOUND), 0, 0};
+        String message = "Cannot run the command: java.lang.IllegalStateException";
+        ByteBuffer frame = ByteBuffer.allocate(
+                BinaryProtocol.errorFrameBytes(2, message));
+        BinaryProtocol.putError(frame, codes, 2, message);
+        assertFalse(frame.hasRemaining());
+        frame.flip();
+        assertEquals(frame.remaining() - LENGTH_BYTES, frame.getInt());
+        BinaryProtocol.Response response = BinaryProtocol.getResponse(frame);
+        assertFalse(response.isComplete());
+        assertEquals(message, response.getError());
+        assertArrayEquals(new ResultCode[] {ResultCode.OK,
+                ResultCode.NOT_FOUND}, response.getResults());
+    }
+
+    /**
+     * Test case #4
+     * Tests if an unknown result code or frame kind is refused
+     */
+    @org.junit.Test
+    public void test_UnknownCodes() {
+        assertNull(ResultCode.fromCode(ResultCode.values().length));
+        assertNull(ResultCode.fromCode(-1));
+        byte[][] invalid = {{0, 0, 1, 99}, {7, 0, 0}, {0, 0, 2, 0}};
+        for (byte[] body : invalid) {
+            try {
+                BinaryProtocol.getResponse(ByteBuffer.wrap(body));
+                fail("Accepted " + Arrays.toString(body));
+            }
+            catch (IllegalArgumentException e) {
+                //expected
+            }
+        }
+    }
+}
@@ -11,6 +11,8 @@ public enum Campus {
 
     private final int campusCode;
 
+    private static final Campus[] CAMPUSES = values(); //indexed by campus code
+
     /**
      * Creates a predefined campus with campus code
      * @param campusCode campus code
@@ -18,4 +20,24 @@ public enum Campus {
     Campus(int campusCode) {
         this.campusCode = campusCode;
     }
+
+    /**
+     * Returns the campus code
+     * @return campus code
+     */
+    public int getCampusCode() {
+        return campusCode;
+    }
+
+    /**
+     * Returns the campus that corresponds to the campus code
+     * @param campusCode campus code
+     * @return campus if it exists, null otherwise
+     */
+    public static Campus fromCode(int campusCode) {
+        if (campusCode < 0 || campusCode >= CAMPUSES.length) {
+            return null;
+        }
+        return CAMPUSES[campusCode];
+    }
 }
@@ -5,11 +5,6 @@ package com.banking;
  * @author Jeeva Ramasamy, Parth Patel
  */
 public class Checking extends Account {
-    private static final double INTEREST_RATE = 0.01;
-    private static final double MONTHLY_FEE = 12;
-    private static final double NO_FEE = 0;
-    private static final double MIN_BAL_TO_WAIVE_FEE = 1000;
-    private static final int MONTHS_IN_YEAR = 12;
     private static final int LESS_THAN = -1;
     private static final int GREATER_THAN = 1;
     private static final String ACCT_TYPE = "Checking";
@@ -19,9 +14,9 @@ public class Checking extends Account {
      * Creates a Checking account object with the specified
      * holder and balance
      * @param holder account holder's profile
-     * @param balance account balance
+     * @param balance account balance in cents
      */
-    public Checking(Profile holder, double balance) {
+    public Checking(Profile holder, long balance) {
         super(holder, balance);
     }
 
@@ -35,23 +30,22 @@ public class Checking extends Account {
 
     /**
      * Returns the monthly interest for the checking account
-     * @return monthly interest
+     * @param rates the rate table
+     * @return monthly interest in cents
      */
     @Override
-    public double monthlyInterest() {
-        return INTEREST_RATE / MONTHS_IN_YEAR;
+    public long monthlyInterest(RateTable rates) {
+        return rates.monthlyInterest(getType(), false, this.balance);
     }
 
     /**
      * Returns the monthly fee for the checking account
-     * @return monthly fee
+     * @param rates the rate table
+     * @return monthly fee in cents
      */
     @Override
-    public double monthlyFee() {
-        if (this.balance >= MIN_BAL_TO_WAIVE_FEE) {
-            return NO_FEE;
-        }
-        return MONTHLY_FEE;
+    public long monthlyFee(RateTable rates) {
+        return rates.monthlyFee(getType(), this.balance, 0);
     }
 
     /**
@@ -72,6 +66,15 @@ public class Checking extends Account {
         return ACCT_SYMBOL;
     }
 
+    /**
+     * Returns the predefined account type
+     * @return predefined account type
+     */
+    @Override
+    public AccountType getType() {
+        return AccountType.CHECKING;
+    }
+
     /**
      * Checks if this Checking object is equal to the specified object
      * @param obj specified object
@@ -107,12 +110,14 @@ public class Checking extends Account {
     }
 
     /**
-     * Returns a string representation of the Checking account
+     * Writes the Checking account into the specified builder
      * in the format: banking.Checking::Account
-     * @return string version of checking account
+     * @param out builder the checking account is written to
+     * @return the specified builder
      */
     @Override
-    public String toString() {
-        return "banking."+ ACCT_TYPE + "::" + super.toString();
+    public StringBuilder appendTo(StringBuilder out) {
+        out.append("banking.").append(ACCT_TYPE).append("::");
+        return super.appendTo(out);
     }
 }
@@ -6,9 +6,6 @@ package com.banking;
  */
 public class CollegeChecking extends Checking {
     private Campus campus; //campus code
-    private static final double INTEREST_RATE = 0.01;
-    private static final double MONTHLY_FEE = 0;
-    private static final int MONTHS_IN_YEAR = 12;
     private static final int LESS_THAN = -1;
     private static final int GREATER_THAN = 1;
     private static final String ACCT_TYPE = "College";
@@ -18,10 +15,10 @@ public class CollegeChecking extends Checking {
      * Creates a College Checking account object with the specified
      * holder, balance, and campus
      * @param holder account holder's profile
-     * @param balance account balance
+     * @param balance account balance in cents
      * @param campus account holder's campus
      */
-    public CollegeChecking(Profile holder, double balance, Campus campus) {
+    public CollegeChecking(Profile holder, long balance, Campus campus) {
         super(holder, balance);
         this.campus = campus;
     }
@@ -30,9 +27,9 @@ public class CollegeChecking extends Checking {
      * Creates a College Checking account object with the specified
      * holder and balance
      * @param holder account holder's profile
-     * @param balance account balance
+     * @param balance account balance in cents
      */
-    public CollegeChecking(Profile holder, double balance) {
+    public CollegeChecking(Profile holder, long balance) {
         super(holder, balance);
     }
 
@@ -45,21 +42,11 @@ public class CollegeChecking extends Checking {
     }
 
     /**
-     * Returns the monthly interest for the checking account
-     * @return monthly interest
+     * Returns the account holder's campus
+     * @return campus
      */
-    @Override
-    public double monthlyInterest() {
-        return INTEREST_RATE / MONTHS_IN_YEAR;
-    }
-
-    /**
-     * Returns the monthly fee for the college checking account
-     * @return monthly fee
-     */
-    @Override
-    public double monthlyFee() {
-        return MONTHLY_FEE;
+    public Campus getCampus() {
+        return campus;
     }
 
     /**
@@ -80,6 +67,15 @@ public class CollegeChecking extends Checking {
         return ACCT_SYMBOL;
     }
 
+    /**
+     * Returns the predefined account type
+     * @return predefined account type
+     */
+    @Override
+    public AccountType getType() {
+        return AccountType.COLLEGE_CHECKING;
+    }
+
     /**
      * Checks if this College Checking object is equal to the
      * specified object
@@ -112,12 +108,14 @@ public class CollegeChecking extends Checking {
     }
 
     /**
-     * Returns a string representation of the College Checking account
+     * Writes the College Checking account into the specified builder
      * in the format: College Checking_account::campus
-     * @return string version of college checking account
+     * @param out builder the college checking account is written to
+     * @return the specified builder
      */
     @Override
-    public String toString() {
-        return ACCT_TYPE + " " + super.toString() + "::" + campus.name();
+    public StringBuilder appendTo(StringBuilder out) {
+        out.append(ACCT_TYPE).append(' ');
+        return super.appendTo(out).append("::").append(campus.name());
     }
 }
@@ -0,0 +1,347 @@
+package com.banking;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+
+/**
+ * Stores accounts as parallel primitive columns, one set of columns per
+ * account type, instead of as Account objects. Balances, loyalty flags
+ * and withdrawal counts sit in contiguous arrays, so the month-end run is
+ * a tight loop over primitives per account type with no virtual calls or
+ * type checks. Account objects are created only when one is asked for.
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class ColumnarAccountStore {
+    private final EnumMap<AccountType, Columns> columns; //columns by account type
+
+    private static final int INITIAL_CAPACITY = 4;
+    private static final int GROWTH_SHIFT = 1; //grows by half the capacity
+    private static final int NOT_FOUND = -1;
+    private static final int EMPTY = 0;
+    private static final byte NO_CAMPUS = -1;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 0;
+
+    /**
+     * Creates an empty store
+     */
+    public ColumnarAccountStore() {
+        columns = new EnumMap<>(AccountType.class);
+        for (AccountType type : AccountType.values()) {
+            columns.put(type, new Columns());
+        }
+    }
+
+    /**
+     * Creates a store holding a copy of every account in the database
+     * @param acctDb the account database
+     * @return the store
+     */
+    public static ColumnarAccountStore of(AccountDatabase acctDb) {
+        ColumnarAccountStore store = new ColumnarAccountStore();
+        for (Account acct : acctDb.toArray()) {
+            store.open(acct);
+        }
+        return store;
+    }
+
+    /**
+     * Returns the number of accounts in the store
+     * @return number of accounts
+     */
+    public int size() {
+        int size = EMPTY;
+        for (Columns column : columns.values()) {
+            size += column.size;
+        }
+        return size;
+    }
+
+    /**
+     * Checks whether the holder has an account of the type
+     * @param type account type
+     * @param holder account holder's profile
+     * @return true if in the store, false otherwise
+     */
+    public boolean contains(AccountType type, Profile holder) {
+        return columns.get(type).find(holder) != NOT_FOUND;
+    }
+
+    /**
+     * Adds a copy of the account to the store
+     * @param acct account to be added
+     * @return true if added, false if the holder already has an account
+     *         in the same account family
+     */
+    public boolean open(Account acct) {
+        Profile holder = acct.getProfile();
+        for (AccountType type : AccountType.values()) {
+            if (type.family() == acct.getType().family()
+                    && contains(type, holder)) {
+                return false;
+            }
+        }
+        byte campus = NO_CAMPUS;
+        boolean isLoyal = false;
+        int withdrawals = EMPTY;
+        if (acct instanceof CollegeChecking) {
+            campus = (byte) ((CollegeChecking) acct).getCampus()
+                    .getCampusCode();
+        }
+        if (acct instanceof Savings) {
+            isLoyal = ((Savings) acct).isLoyal();
+        }
+        if (acct instanceof MoneyMarket) {
+            withdrawals = ((MoneyMarket) acct).getWithdrawals();
+        }
+        columns.get(acct.getType()).add(holder, acct.getBalance(), isLoyal,
+                campus, withdrawals);
+        return true;
+    }
+
+    /**
+     * Removes the holder's account of the type
+     * @param type account type
+     * @param holder account holder's profile
+     * @return true if removed, false if not in the store
+     */
+    public boolean close(AccountType type, Profile holder) {
+        Columns column = columns.get(type);
+        int slot = column.find(holder);
+        if (slot == NOT_FOUND) {
+            return false;
+        }
+        column.remove(slot);
+        return true;
+    }
+
+    /**
+     * Deposits the amount into the holder's account of the type
+     * @param type account type
+     * @param holder account holder's profile
+     * @param amount deposit amount in cents
+     * @return true if deposited, false if not in the store
+     */
+    public boolean deposit(AccountType type, Profile holder, long amount) {
+        Columns column = columns.get(type);
+        int slot = column.find(holder);
+        if (slot == NOT_FOUND) {
+            return false;
+        }
+        column.balances[slot] += amount;
+        if (type == AccountType.MONEY_MARKET) {
+            column.updateLoyalty(slot, RateTable.current());
+        }
+        return true;
+    }
+
+    /**
+     * Withdraws the amount from the holder's account of the type
+     * @param type account type
+     * @param holder account holder's profile
+     * @param amount withdrawal amount in cents
+     * @return true if withdrawn, false if not in the store or insufficient
+     *         fund
+     */
+    public boolean withdraw(AccountType type, Profile holder, long amount) {
+        Columns column = columns.get(type);
+        int slot = column.find(holder);
+        if (slot == NOT_FOUND || column.balances[slot] < amount) {
+            return false;
+        }
+        column.balances[slot] -= amount;
+        if (type == AccountType.MONEY_MARKET) {
+            ++column.withdrawals[slot];
+            column.updateLoyalty(slot, RateTable.current());
+        }
+        return true;
+    }
+
+    /**
+     * Returns the holder's account of the type as an Account object
+     * @param type account type
+     * @param holder account holder's profile
+     * @return copy of the account, or null if not in the store
+     */
+    public Account get(AccountType type, Profile holder) {
+        Columns column = columns.get(type);
+        int slot = column.find(holder);
+        if (slot == NOT_FOUND) {
+            return null;
+        }
+        return column.materialize(type, slot);
+    }
+
+    /**
+     * Returns every account as an Account object, sorted by account type
+     * and profile
+     * @return copies of the accounts
+     */
+    public Account[] toArray() {
+        Account[] accts = new Account[size()];
+        int i = EMPTY;
+        for (AccountType type : AccountType.values()) {
+            Columns column = columns.get(type);
+            for (int slot = 0; slot < column.size; ++slot) {
+                accts[i++] = column.materialize(type, slot);
+            }
+        }
+        Arrays.sort(accts);
+        return accts;
+    }
+
+    /**
+     * Adds a month of interest to every account, then takes the monthly
+     * fee and clears the Money Market withdrawal counts, running one loop
+     * over the balance column of each account type with the rates of that
+     * type read once from the rate table
+     * @return interest paid and fees collected per account type
+     */
+    public MonthlyTotals applyMonthlyInterestAndFees() {
+        RateTable rates = RateTable.current();
+        MonthlyTotals totals = new MonthlyTotals();
+        for (AccountType type : AccountType.values()) {
+            apply(type, columns.get(type), rates, totals);
+        }
+        return totals;
+    }
+
+    /**
+     * Applies a month of interest and fees to the accounts of one type
+     * and clears their withdrawal counts
+     * @param type account type
+     * @param column the columns of the type
+     * @param rates the rate table
+     * @param totals totals the interest and fees are counted in
+     */
+    private static void apply(AccountType type, Columns column,
+                              RateTable rates, MonthlyTotals totals) {
+        int rate = rates.getRate(type, false);
+        int loyalRate = rates.getRate(type, true);
+        long monthlyFee = rates.getFee(type);
+        long feeWaiver = rates.getFeeWaiver(type);
+        long withdrawalFee = rates.getWithdrawalFee();
+        int freeWithdrawals = rates.getFreeWithdrawals();
+        long[] balances = column.balances;
+        byte[] loyal = column.loyal;
+        int[] withdrawals = column.withdrawals;
+        if (type == AccountType.MONEY_MARKET) {
+            for (int i = 0; i < column.size; ++i) {
+                column.updateLoyalty(i, rates);
+            }
+        }
+        long paid = 0;
+        long fees = 0;
+        for (int i = 0; i < column.size; ++i) {
+            long balance = balances[i];
+            long interest = Money.monthlyInterest(balance,
+                    loyal[i] == TRUE ? loyalRate : rate);
+            balance += interest;
+            long fee = balance < feeWaiver ? monthlyFee : 0;
+            if (withdrawals[i] > freeWithdrawals) {
+                fee += withdrawalFee;
+            }
+            balances[i] = balance - fee;
+            paid += interest;
+            fees += fee;
+        }
+        totals.add(type, paid, fees);
+        Arrays.fill(withdrawals, 0, column.size, EMPTY);
+    }
+
+    /**
+     * Holds the accounts of one account type as parallel columns
+     */
+    private static class Columns {
+        private Profile[] holders = new Profile[INITIAL_CAPACITY];
+        private long[] balances = new long[INITIAL_CAPACITY]; //cents
+        private byte[] loyal = new byte[INITIAL_CAPACITY]; //1 if loyal
+        private byte[] campuses = new byte[INITIAL_CAPACITY]; //campus codes
+        private int[] withdrawals = new int[INITIAL_CAPACITY];
+        private final HashMap<Profile, Integer> slots = new HashMap<>(); //slots by holder
+        private int size;
+
+        /**
+         * Returns the slot of the holder's account
+         * @param holder account holder's profile
+         * @return slot, or NOT_FOUND if not in the columns
+         */
+        private int find(Profile holder) {
+            Integer slot = slots.get(holder);
+            return slot == null ? NOT_FOUND : slot;
+        }
+
+        /**
+         * Appends an account to the columns
+         * @param holder account holder's profile
+         * @param balance balance in cents
+         * @param isLoyal whether the account holder is loyal
+         * @param campus campus code, or NO_CAMPUS
+         * @param withdrawal number of withdrawals this month
+         */
+        private void add(Profile holder, long balance, boolean isLoyal,
+                         byte campus, int withdrawal) {
+            if (size == holders.length) {
+                int capacity = size + (size >> GROWTH_SHIFT);
+                holders = Arrays.copyOf(holders, capacity);
+                balances = Arrays.copyOf(balances, capacity);
+                loyal = Arrays.copyOf(loyal, capacity);
+                campuses = Arrays.copyOf(campuses, capacity);
+                withdrawals = Arrays.copyOf(withdrawals, capacity);
+            }
+            holders[size] = holder;
+            balances[size] = balance;
+            loyal[size] = isLoyal ? TRUE : FALSE;
+            campuses[size] = campus;
+            withdrawals[size] = withdrawal;
+            slots.put(holder, size);
+            ++size;
+        }
+
+        /**
+         * Removes an account by moving the last account into its slot
+         * @param slot slot of the account
+         */
+        private void remove(int slot) {
+            slots.remove(holders[slot]);
+            --size;
+            if (slot != size) {
+                holders[slot] = holders[size];
+                balances[slot] = balances[size];
+                loyal[slot] = loyal[size];
+                campuses[slot] = campuses[size];
+                withdrawals[slot] = withdrawals[size];
+                slots.put(holders[slot], slot);
+            }
+            holders[size] = null;
+        }
+
+        /**
+         * Updates the money market loyalty of an account from its balance
+         * @param slot slot of the account
+         * @param rates the rate table
+         */
+        private void updateLoyalty(int slot, RateTable rates) {
+            loyal[slot] = balances[slot] < rates.getLoyaltyBalance()
+                    ? FALSE : TRUE;
+        }
+
+        /**
+         * Creates an Account object from the columns of a slot
+         * @param type account type
+         * @param slot slot of the account
+         * @return the account
+         */
+        private Account materialize(AccountType type, int slot) {
+            Account acct = TransactionEngine.makeAccount(type, holders[slot],
+                    balances[slot], Campus.fromCode(campuses[slot]),
+                    loyal[slot] == TRUE);
+            if (acct instanceof MoneyMarket) {
+                ((MoneyMarket) acct).restore(loyal[slot] == TRUE,
+                        withdrawals[slot]);
+            }
+            return acct;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package banking;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the ColumnarAccountStore class against AccountDatabase
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class ColumnarAccountStoreTest {
+    private static final Profile BILL = new Profile("Bill", "Gates",
+            new Date(1976, 1, 1));
+    private static final Profile STEVE = new Profile("Steve", "Jobs",
+            new Date(1955, 2, 24));
+    private static final Profile JANE = new Profile("Jane", "Doe",
+            new Date(2003, 5, 5));
+    private static final Profile ADA = new Profile("Ada", "Lovelace",
+            new Date(1990, 12, 10));
+    private static final Profile GRACE = new Profile("Grace", "Hopper",
+            new Date(1986, 12, 9));
+    private static final Profile LINUS = new Profile("Linus", "Torvalds",
+            new Date(1969, 12, 28));
+
+    /**
+     * Test case #1
+     * Tests if the month-end run on a mixed population gives the same
+     * balances, totals and Money Market loyalty in both stores, over two
+     * months with the loyalty changing in between
+     */
+    @org.junit.Test
+    public void test_MonthEndMatchesDatabase() {
+        AccountDatabase database = new AccountDatabase();
+        database.open(new Checking(BILL, 150000));
+        database.open(new Checking(STEVE, 5000));
+        database.open(new CollegeChecking(JANE, 3000, Campus.CAMDEN));
+        database.open(new Savings(ADA, 60000, true));
+        database.open(new Savings(BILL, 20000, false));
+        database.open(new MoneyMarket(GRACE, 250000));
+        database.open(new MoneyMarket(LINUS, 300000));
+        ColumnarAccountStore columnar = ColumnarAccountStore.of(database);
+        for (int i = 0; i < 4; ++i) {
+            both(database, columnar, AccountType.MONEY_MARKET, GRACE, -20000);
+        }
+        both(database, columnar, AccountType.MONEY_MARKET, LINUS, 1000);
+        both(database, columnar, AccountType.CHECKING, STEVE, -4000);
+        assertMatch(database, columnar);
+        assertTotals(database.applyMonthlyInterestAndFees(),
+                columnar.applyMonthlyInterestAndFees());
+        assertMatch(database, columnar);
+        assertFalse(isLoyal(database.toArray(), GRACE));
+
+        both(database, columnar, AccountType.MONEY_MARKET, GRACE, 100000);
+        assertTrue(isLoyal(database.toArray(), GRACE));
+        assertTotals(database.applyMonthlyInterestAndFees(),
+                columnar.applyMonthlyInterestAndFees());
+        assertMatch(database, columnar);
+    }
+
+    /**
+     * Runs the same deposit or withdrawal on both stores
+     * @param database the account database
+     * @param columnar the columnar store
+     * @param type account type
+     * @param holder account holder's profile
+     * @param amount cents deposited if positive, withdrawn if negative
+     */
+    private static void both(AccountDatabase database,
+                             ColumnarAccountStore columnar, AccountType type,
+                             Profile holder, long amount) {
+        if (amount > 0) {
+            assertTrue(database.deposit(type, holder, amount).isOk());
+            assertTrue(columnar.deposit(type, holder, amount));
+        }
+        else {
+            assertTrue(database.withdraw(type, holder, -amount).isOk());
+            assertTrue(columnar.withdraw(type, holder, -amount));
+        }
+    }
+
+    /**
+     * Checks that both stores hold the same accounts, balances, loyalty
+     * and withdrawal counts
+     * @param database the account database
+     * @param columnar the columnar store
+     */
+    private static void assertMatch(AccountDatabase database,
+                                   ColumnarAccountStore columnar) {
+        Account[] expected = database.toArray();
+        Account[] actual = columnar.toArray();
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; ++i) {
+            assertEquals(expected[i], actual[i]);
+            assertEquals(expected[i].getBalance(), actual[i].getBalance());
+            if (expected[i] instanceof Savings) {
+                assertEquals(((Savings) expected[i]).isLoyal(),
+                        ((Savings) actual[i]).isLoyal());
+            }
+            if (expected[i] instanceof MoneyMarket) {
+                assertEquals(((MoneyMarket) expected[i]).getWithdrawals(),
+                        ((MoneyMarket) actual[i]).getWithdrawals());
+            }
+        }
+    }
+
+    /**
+     * Checks that two month-end runs paid and collected the same amounts
+     * per account type
+     * @param expected totals of the account database
+     * @param actual totals of the columnar store
+     */
+    private static void assertTotals(MonthlyTotals expected,
+                                     MonthlyTotals actual) {
+        for (AccountType type : AccountType.values()) {
+            assertEquals(expected.getInterest(type), actual.getInterest(type));
+            assertEquals(expected.getFees(type), actual.getFees(type));
+        }
+        assertTrue(expected.getTotalFees() > 0);
+    }
+
+    /**
+     * Returns the loyalty of a holder's Money Market account
+     * @param accts the accounts
+     * @param holder account holder's profile
+     * @return true if loyal, false otherwise
+     */
+    private static boolean isLoyal(Account[] accts, Profile holder) {
+        for (Account acct : accts) {
+            if (acct instanceof MoneyMarket && acct.getProfile().equals(holder)) {
+                return ((Savings) acct).isLoyal();
+            }
+        }
+        throw new AssertionError("No Money Market account for " + holder);
+    }
+}
@@ -0,0 +1,379 @@
+package com.banking;
+
+/**
+ * Represents a transaction to be run by the transaction engine,
+ * and describes the outcome of running it
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class Command {
+    private final Kind kind;
+    private final AccountType type; //null if not given
+    private final Profile holder;
+    private final long amount; //cents
+    private final int campusCode; //college checking only, NO_CAMPUS if not given
+    private final boolean isLoyal; //savings only
+    private final ReportType report; //print only
+
+    public static final int NO_CAMPUS = -1; //campus code of a command without one
+
+    private static final long NO_AMOUNT = 0;
+    private static final int KIND = 0;
+    private static final int TYPE = 1;
+    private static final int FIRST_NAME = 2;
+    private static final int LAST_NAME = 3;
+    private static final int DOB = 4;
+    private static final int AMOUNT = 5;
+    private static final int EXTRA = 6;
+    private static final String LOYAL = "1";
+    private static final String INVALID_COMMAND = "Invalid command!\n";
+
+    /**
+     * Represents the kinds of transactions
+     */
+    public enum Kind {
+        OPEN ("opening"),
+        CLOSE ("closing"),
+        DEPOSIT ("depositing into"),
+        WITHDRAW ("withdrawing from"),
+        PRINT ("printing");
+
+        private final String action;
+
+        /**
+         * Creates a kind of transaction with its action description
+         * @param action the action done to an account
+         */
+        Kind(String action) {
+            this.action = action;
+        }
+    }
+
+    /**
+     * Creates a Command object with all of its attributes
+     * @param kind kind of transaction
+     * @param type account type
+     * @param holder account holder's profile
+     * @param amount amount in cents
+     * @param campusCode campus code of a college checking account holder
+     * @param isLoyal whether a savings account holder is loyal
+     * @param report report to be printed
+     */
+    private Command(Kind kind, AccountType type, Profile holder, long amount,
+                    int campusCode, boolean isLoyal, ReportType report) {
+        this.kind = kind;
+        this.type = type;
+        this.holder = holder;
+        this.amount = amount;
+        this.campusCode = campusCode;
+        this.isLoyal = isLoyal;
+        this.report = report;
+    }
+
+    /**
+     * Creates a command that opens an account
+     * @param type account type
+     * @param holder account holder's profile
+     * @param deposit initial deposit in cents
+     * @param campus campus of a college checking account holder
+     * @param isLoyal whether a savings account holder is loyal
+     * @return open command
+     */
+    public static Command open(AccountType type, Profile holder, long deposit,
+                               Campus campus, boolean isLoyal) {
+        return open(type, holder, deposit,
+                campus == null ? NO_CAMPUS : campus.getCampusCode(), isLoyal);
+    }
+
+    /**
+     * Creates a command that opens an account from a campus code as it
+     * was given, so an unknown code is reported when the command is run
+     * @param type account type
+     * @param holder account holder's profile
+     * @param deposit initial deposit in cents
+     * @param campusCode campus code of a college checking account holder,
+     *                   NO_CAMPUS if not given
+     * @param isLoyal whether a savings account holder is loyal
+     * @return open command
+     */
+    public static Command open(AccountType type, Profile holder, long deposit,
+                               int campusCode, boolean isLoyal) {
+        return new Command(Kind.OPEN, type, holder, deposit, campusCode,
+                isLoyal, null);
+    }
+
+    /**
+     * Creates a command that closes an account
+     * @param type account type
+     * @param holder account holder's profile
+     * @return close command
+     */
+    public static Command close(AccountType type, Profile holder) {
+        return new Command(Kind.CLOSE, type, holder, NO_AMOUNT, NO_CAMPUS,
+                false, null);
+    }
+
+    /**
+     * Creates a command that deposits into an account
+     * @param type account type
+     * @param holder account holder's profile
+     * @param amount deposit amount in cents
+     * @return deposit command
+     */
+    public static Command deposit(AccountType type, Profile holder,
+                                  long amount) {
+        return new Command(Kind.DEPOSIT, type, holder, amount, NO_CAMPUS,
+                false, null);
+    }
+
+    /**
+     * Creates a command that withdraws from an account
+     * @param type account type
+     * @param holder account holder's profile
+     * @param amount withdrawal amount in cents
+     * @return withdraw command
+     */
+    public static Command withdraw(AccountType type, Profile holder,
+                                   long amount) {
+        return new Command(Kind.WITHDRAW, type, holder, amount, NO_CAMPUS,
+                false, null);
+    }
+
+    /**
+     * Creates a command that prints a report of the account database
+     * @param report report to be printed
+     * @return print command
+     */
+    public static Command print(ReportType report) {
+        return new Command(Kind.PRINT, null, null, NO_AMOUNT, NO_CAMPUS,
+                false, report);
+    }
+
+    /**
+     * Parses a command line of whitespace-separated fields:
+     * O type first last mm/dd/yyyy deposit [campus code|loyalty],
+     * C type first last mm/dd/yyyy, D or W type first last mm/dd/yyyy
+     * amount, and P, PI or UB to print a report. Account types are given
+     * by symbol, and amounts in dollars.
+     * @param line the command line
+     * @return the command
+     * @throws IllegalArgumentException if the line is not a command, with
+     *         the message to show the user
+     */
+    public static Command parse(String line) {
+        String[] fields = line.trim().split("\\s+");
+        switch (fields[KIND]) {
+            case "P":
+                return print(ReportType.ACCOUNTS);
+            case "PI":
+                return print(ReportType.FEES_AND_INTERESTS);
+            case "UB":
+                return print(ReportType.UPDATED_BALANCES);
+            case "O":
+                return parseAccount(Kind.OPEN, fields);
+            case "C":
+                return parseAccount(Kind.CLOSE, fields);
+            case "D":
+                return parseAccount(Kind.DEPOSIT, fields);
+            case "W":
+                return parseAccount(Kind.WITHDRAW, fields);
+            default:
+                throw new IllegalArgumentException(INVALID_COMMAND);
+        }
+    }
+
+    /**
+     * Parses the fields of a command on an account
+     * @param kind kind of transaction
+     * @param fields fields of the command line
+     * @return the command
+     * @throws IllegalArgumentException if a field is missing or not valid
+     */
+    private static Command parseAccount(Kind kind, String[] fields) {
+        String missingData = "Missing data for " + kind.action
+                + " an account.\n";
+        int needed = kind == Kind.CLOSE ? DOB + 1 : AMOUNT + 1;
+        if (fields.length < needed) {
+            throw new IllegalArgumentException(missingData);
+        }
+        AccountType type = AccountType.fromSymbol(fields[TYPE]);
+        if (type == null) {
+            throw new IllegalArgumentException("Invalid account type.\n");
+        }
+        Date dob;
+        try {
+            dob = Date.parse(fields[DOB], 0, fields[DOB].length());
+        }
+        catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(missingData);
+        }
+        Profile holder = new Profile(fields[FIRST_NAME], fields[LAST_NAME],
+                dob);
+        if (kind == Kind.CLOSE) {
+            return close(type, holder);
+        }
+        long amount;
+        try {
+            amount = Money.parse(fields[AMOUNT], 0, fields[AMOUNT].length());
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a valid amount.\n");
+        }
+        if (kind == Kind.DEPOSIT) {
+            return deposit(type, holder, amount);
+        }
+        if (kind == Kind.WITHDRAW) {
+            return withdraw(type, holder, amount);
+        }
+        int campusCode = NO_CAMPUS;
+        boolean hasExtra = fields.length > EXTRA;
+        if (type == AccountType.COLLEGE_CHECKING && hasExtra) {
+            try {
+                campusCode = Integer.parseInt(fields[EXTRA]);
+            }
+            catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid campus code.\n");
+            }
+        }
+        boolean isLoyal = hasExtra && LOYAL.equals(fields[EXTRA]);
+        return open(type, holder, amount, campusCode, isLoyal);
+    }
+
+    /**
+     * Returns the kind of transaction
+     * @return kind of transaction
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns the account type
+     * @return account type, or null if not given
+     */
+    public AccountType getType() {
+        return type;
+    }
+
+    /**
+     * Returns the account holder's profile
+     * @return profile
+     */
+    public Profile getHolder() {
+        return holder;
+    }
+
+    /**
+     * Returns the amount of the transaction
+     * @return amount in cents
+     */
+    public long getAmount() {
+        return amount;
+    }
+
+    /**
+     * Returns the campus of a college checking account holder
+     * @return campus, or null if not given or the code is unknown
+     */
+    public Campus getCampus() {
+        return Campus.fromCode(campusCode);
+    }
+
+    /**
+     * Returns the campus code of a college checking account holder
+     * @return campus code as it was given, NO_CAMPUS if not given
+     */
+    public int getCampusCode() {
+        return campusCode;
+    }
+
+    /**
+     * Returns whether a savings account holder is loyal
+     * @return true if loyal, false otherwise
+     */
+    public boolean isLoyal() {
+        return isLoyal;
+    }
+
+    /**
+     * Returns the report to be printed
+     * @return report
+     */
+    public ReportType getReport() {
+        return report;
+    }
+
+    /**
+     * Returns the message shown to a user for the outcome of this command
+     * @param result outcome of running this command
+     * @return message describing the outcome
+     */
+    public String message(ResultCode result) {
+        switch (result) {
+            case OK:
+                return successMessage();
+            case MISSING_DATA:
+                return "Missing data for " + kind.action + " an account.\n";
+            case INVALID_DATE:
+                return "DOB invalid: " + holder.getDOB()
+                        + " not a valid calendar date!\n";
+            case FUTURE_DATE:
+                return "DOB invalid: " + holder.getDOB()
+                        + " cannot be today or a future day.\n";
+            case UNDER_AGE:
+                return "DOB invalid: " + holder.getDOB() + " under 16.\n";
+            case OVER_COLLEGE_AGE:
+                return "DOB invalid: " + holder.getDOB() + " over 24.\n";
+            case NON_POSITIVE_AMOUNT:
+                if (kind == Kind.DEPOSIT) {
+                    return "Deposit - amount cannot be 0 or negative.\n";
+                }
+                if (kind == Kind.WITHDRAW) {
+                    return "Withdraw - amount cannot be 0 or negative.\n";
+                }
+                return "Initial deposit cannot be 0 or negative.\n";
+            case BELOW_MINIMUM_DEPOSIT:
+                return "Minimum of $2000 to open a Money Market account.\n";
+            case INVALID_CAMPUS:
+                return "Invalid campus code.\n";
+            case ALREADY_EXISTS:
+                return account() + " is already in the database.\n";
+            case NOT_FOUND:
+                return account() + " is not in the database.\n";
+            case INSUFFICIENT_FUNDS:
+                return account() + " Withdraw - insufficient fund.\n";
+            case NAME_TOO_LONG:
+                return "Name invalid: longer than "
+                        + AccountValidator.MAX_NAME_BYTES + " bytes.\n";
+            default:
+                return result + "\n";
+        }
+    }
+
+    /**
+     * Returns the message shown to a user when this command succeeds
+     * @return success message
+     */
+    private String successMessage() {
+        switch (kind) {
+            case OPEN:
+                return account() + " opened.\n";
+            case CLOSE:
+                return account() + " has been closed.\n";
+            case DEPOSIT:
+                return account() + " Deposit - balance updated.\n";
+            case WITHDRAW:
+                return account() + " Withdraw - balance updated.\n";
+            default:
+                return "";
+        }
+    }
+
+    /**
+     * Returns the account this command is for
+     * in the format: holder(symbol)
+     * @return string version of the account
+     */
+    private String account() {
+        return holder + "(" + type.getSymbol() + ")";
+    }
+}
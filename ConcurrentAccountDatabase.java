@@ -0,0 +1,442 @@
+package com.banking;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Represents an organized list of accounts that many threads can use at
+ * once. Lookups are lock-free; every change to an account holds the lock
+ * of the stripe its holder's profile hashes to, so a balance is never
+ * overdrawn or updated by two threads at the same time. Changes also
+ * share an epoch lock that the month-end run takes exclusively, so the
+ * run sees every account between two transactions and never in the
+ * middle of one.
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class ConcurrentAccountDatabase {
+    private final EnumMap<AccountType, ConcurrentHashMap<Profile, Account>>
+            index; //accounts by family and holder
+    private final ConcurrentSkipListSet<Account> sorted; //accounts by account type and profile
+    private final ReentrantLock[] stripes; //locks guarding the accounts
+    private final ReentrantReadWriteLock epoch; //shared by changes, exclusive to month-end
+    private final int stripeMask;
+
+    private static final int MIN_STRIPES = 64;
+    private static final int STRIPES_PER_CORE = 4;
+    private static final int HASH_SPREAD_SHIFT = 16;
+    private static final String EMPTY_DATABASE =
+            "banking.Account Database is empty!\n";
+    private static final String END_OF_LIST = "*end of list.\n";
+
+    /**
+     * Creates an empty list of accounts with a lock stripe count
+     * suited to the number of processors
+     */
+    public ConcurrentAccountDatabase() {
+        this(Math.max(MIN_STRIPES, STRIPES_PER_CORE
+                * Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Creates an empty list of accounts with at least the specified
+     * number of lock stripes
+     * @param concurrency expected number of threads changing accounts
+     */
+    public ConcurrentAccountDatabase(int concurrency) {
+        int stripeCount = Integer.highestOneBit(Math.max(concurrency, 1) - 1) << 1;
+        stripeCount = Math.max(stripeCount, 1);
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; ++i) {
+            stripes[i] = new ReentrantLock();
+        }
+        stripeMask = stripeCount - 1;
+        epoch = new ReentrantReadWriteLock();
+        sorted = new ConcurrentSkipListSet<>();
+        index = new EnumMap<>(AccountType.class);
+        for (AccountType type : AccountType.values()) {
+            if (type.family() == type) {
+                index.put(type, new ConcurrentHashMap<>());
+            }
+        }
+    }
+
+    /**
+     * Returns the lock guarding the accounts of the specified holder
+     * @param profile account holder's profile
+     * @return lock of the holder's stripe
+     */
+    private ReentrantLock stripe(Profile profile) {
+        return stripes[stripeIndex(profile)];
+    }
+
+    /**
+     * Returns the index of the stripe guarding the accounts of the
+     * specified holder
+     * @param profile account holder's profile
+     * @return index of the holder's stripe
+     */
+    private int stripeIndex(Profile profile) {
+        int hash = profile.hashCode();
+        return (hash ^ (hash >>> HASH_SPREAD_SHIFT)) & stripeMask;
+    }
+
+    /**
+     * Enters the current epoch and locks the stripe of the holder
+     * @param profile account holder's profile
+     * @return the locked stripe, to be passed to unlock
+     */
+    private ReentrantLock lock(Profile profile) {
+        epoch.readLock().lock();
+        ReentrantLock lock = stripe(profile);
+        lock.lock();
+        return lock;
+    }
+
+    /**
+     * Unlocks a stripe and leaves the current epoch
+     * @param lock the stripe returned by lock
+     */
+    private void unlock(ReentrantLock lock) {
+        lock.unlock();
+        epoch.readLock().unlock();
+    }
+
+    /**
+     * Returns the index of the account family the account belongs to
+     * @param account account whose family index is needed
+     * @return map from holder's profile to account
+     */
+    private ConcurrentHashMap<Profile, Account> familyIndex(Account account) {
+        return index.get(account.getType().family());
+    }
+
+    /**
+     * Search for an account without locking
+     * @param account account to be searched
+     * @return stored account of the same family and holder, null otherwise
+     */
+    private Account find(Account account) {
+        return familyIndex(account).get(account.getProfile());
+    }
+
+    /**
+     * Checks whether is account is in the database without locking
+     * @param account account to be searched
+     * @return true if in database, false otherwise
+     */
+    public boolean contains(Account account) {
+        Account stored = find(account);
+        return stored != null && stored.getType() == account.getType();
+    }
+
+    /**
+     * Checks whether is account is in the database without locking
+     * and considers Checking equal to CollegeChecking
+     * @param account account to be searched
+     * @param isOpening true if account is being opened, false otherwise
+     * @return true if in database, false otherwise
+     */
+    public boolean contains(Account account, boolean isOpening) {
+        if (isOpening) {
+            return find(account) != null;
+        }
+        return false;
+    }
+
+    /**
+     * Add a new account to the database
+     * @param account account to be added
+     * @return true if successfully added, false if the holder already
+     *         has an account in the same account family
+     */
+    public boolean open(Account account) {
+        ReentrantLock lock = lock(account.getProfile());
+        try {
+            if (familyIndex(account).putIfAbsent(account.getProfile(),
+                    account) != null) {
+                return false;
+            }
+            sorted.add(account);
+            return true;
+        }
+        finally {
+            unlock(lock);
+        }
+    }
+
+    /**
+     * Remove the given account from the database
+     * @param account account to be closed
+     * @return true if successfully closed, false otherwise
+     */
+    public boolean close(Account account) {
+        ReentrantLock lock = lock(account.getProfile());
+        try {
+            Account stored = find(account);
+            if (stored == null || stored.getType() != account.getType()) {
+                return false;
+            }
+            familyIndex(account).remove(account.getProfile());
+            sorted.remove(stored);
+            return true;
+        }
+        finally {
+            unlock(lock);
+        }
+    }
+
+    /**
+     * Withdraws the amount from the account, checking and updating the
+     * balance as one atomic step
+     * @param account account money is withdrawn from
+     * @return false if not in the database or insufficient fund,
+     *         true otherwise
+     */
+    public boolean withdraw(Account account) {
+        return withdraw(account.getType(), account.getProfile(),
+                account.getBalance()).isOk();
+    }
+
+    /**
+     * Deposits amount into the account
+     * @param account account money is deposited to
+     * @return false if not in the database, true otherwise
+     */
+    public boolean deposit(Account account) {
+        return deposit(account.getType(), account.getProfile(),
+                account.getBalance()).isOk();
+    }
+
+    /**
+     * Withdraws the amount from an account with a single lookup,
+     * checking and updating the balance as one atomic step
+     * @param type account type
+     * @param holder account holder's profile
+     * @param amount positive withdrawal amount in cents
+     * @return OK, NOT_FOUND or INSUFFICIENT_FUNDS
+     */
+    public ResultCode withdraw(AccountType type, Profile holder,
+                               long amount) {
+        ReentrantLock lock = lock(holder);
+        try {
+            return withdrawLocked(type, holder, amount);
+        }
+        finally {
+            unlock(lock);
+        }
+    }
+
+    /**
+     * Deposits the amount into an account with a single lookup
+     * @param type account type
+     * @param holder account holder's profile
+     * @param amount positive deposit amount in cents
+     * @return OK or NOT_FOUND
+     */
+    public ResultCode deposit(AccountType type, Profile holder, long amount) {
+        ReentrantLock lock = lock(holder);
+        try {
+            return depositLocked(type, holder, amount);
+        }
+        finally {
+            unlock(lock);
+        }
+    }
+
+    /**
+     * Search for an account of exactly the specified type without locking
+     * @param type account type
+     * @param holder account holder's profile
+     * @return the stored account, null if not in the database
+     */
+    private Account find(AccountType type, Profile holder) {
+        Account stored = index.get(type.family()).get(holder);
+        if (stored == null || stored.getType() != type) {
+            return null;
+        }
+        return stored;
+    }
+
+    /**
+     * Withdraws the amount from an account while the stripe of its
+     * holder is locked
+     * @param type account type
+     * @param holder account holder's profile
+     * @param amount positive withdrawal amount in cents
+     * @return OK, NOT_FOUND or INSUFFICIENT_FUNDS
+     */
+    private ResultCode withdrawLocked(AccountType type, Profile holder,
+                                      long amount) {
+        Account stored = find(type, holder);
+        if (stored == null) {
+            return ResultCode.NOT_FOUND;
+        }
+        if (stored.getBalance() < amount) {
+            return ResultCode.INSUFFICIENT_FUNDS;
+        }
+        stored.subBalance(amount);
+        if (stored instanceof MoneyMarket) {
+            MoneyMarket acct = (MoneyMarket) stored;
+            acct.addWithdrawal();
+            acct.updateLoyalty();
+        }
+        return ResultCode.OK;
+    }
+
+    /**
+     * Applies a posting while the stripe of its holder is locked
+     * @param posting the posting
+     * @return OK, NOT_FOUND or INSUFFICIENT_FUNDS
+     */
+    private ResultCode postLocked(Posting posting) {
+        if (posting.isDeposit()) {
+            return depositLocked(posting.getType(), posting.getHolder(),
+                    posting.getAmount());
+        }
+        return withdrawLocked(posting.getType(), posting.getHolder(),
+                posting.getAmount());
+    }
+
+    /**
+     * Deposits the amount into an account while the stripe of its holder
+     * is locked
+     * @param type account type
+     * @param holder account holder's profile
+     * @param amount positive deposit amount in cents
+     * @return OK or NOT_FOUND
+     */
+    private ResultCode depositLocked(AccountType type, Profile holder,
+                                     long amount) {
+        Account stored = find(type, holder);
+        if (stored == null) {
+            return ResultCode.NOT_FOUND;
+        }
+        stored.addBalance(amount);
+        if (stored instanceof MoneyMarket) {
+            ((MoneyMarket) stored).updateLoyalty();
+        }
+        return ResultCode.OK;
+    }
+
+    /**
+     * Applies a batch of deposits and withdrawals within one epoch. The
+     * postings are grouped by the stripe of their holder and each stripe
+     * is locked once for all of its postings; postings on the same
+     * account keep their order in the batch, so the outcome is the same
+     * as applying them one by one.
+     * @param batch postings to be applied
+     * @return set of positions in the batch that were applied; a posting
+     *         is not applied if its account is not in the database or a
+     *         withdrawal exceeds the balance
+     */
+    public BitSet applyBatch(List<Posting> batch) {
+        long[] order = new long[batch.size()];
+        for (int i = 0; i < order.length; ++i) {
+            order[i] = ((long) stripeIndex(batch.get(i).getHolder())
+                    << Integer.SIZE) | i;
+        }
+        Arrays.sort(order);
+        BitSet applied = new BitSet(batch.size());
+        epoch.readLock().lock();
+        try {
+            int k = 0;
+            while (k < order.length) {
+                int stripe = (int) (order[k] >>> Integer.SIZE);
+                stripes[stripe].lock();
+                try {
+                    for (; k < order.length
+                            && (int) (order[k] >>> Integer.SIZE) == stripe; ++k) {
+                        int i = (int) order[k];
+                        if (postLocked(batch.get(i)).isOk()) {
+                            applied.set(i);
+                        }
+                    }
+                }
+                finally {
+                    stripes[stripe].unlock();
+                }
+            }
+        }
+        finally {
+            epoch.readLock().unlock();
+        }
+        return applied;
+    }
+
+    /**
+     * Adds a month of interest to every account, then takes the monthly
+     * fee and clears the Money Market withdrawal counts, all under the
+     * rate table in effect when the run starts. Waits for running
+     * transactions to finish and holds new ones back until the accounts,
+     * split across the common fork-join pool, are all updated.
+     * @return interest paid and fees collected per account type
+     */
+    public MonthlyTotals applyMonthlyInterestAndFees() {
+        RateTable rates = RateTable.current();
+        epoch.writeLock().lock();
+        try {
+            MonthlyTotals totals = new MonthlyTotals();
+            for (ConcurrentHashMap<Profile, Account> family : index.values()) {
+                totals.merge(family.values().parallelStream().collect(
+                        MonthlyTotals::new,
+                        (partial, acct) -> partial.apply(acct, rates),
+                        MonthlyTotals::merge));
+            }
+            return totals;
+        }
+        finally {
+            epoch.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the sorted accounts
+     * @return a string of sorted accounts
+     */
+    public String printSorted() {
+        StringBuilder output = new StringBuilder();
+        try {
+            writeSorted(output);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toString();
+    }
+
+    /**
+     * Writes the sorted accounts one account at a time, reading each
+     * account under its holder's lock
+     * @param out destination of the report
+     * @throws IOException if the destination cannot be written to
+     */
+    public void writeSorted(Appendable out) throws IOException {
+        if (sorted.isEmpty()) {
+            out.append(EMPTY_DATABASE);
+            return;
+        }
+
+        out.append("*Accounts sorted by account type and profile.\n");
+        StringBuilder row = new StringBuilder();
+        for (Account account : sorted) {
+            row.setLength(0);
+            ReentrantLock lock = lock(account.getProfile());
+            try {
+                account.appendTo(row).append('\n');
+            }
+            finally {
+                unlock(lock);
+            }
+            out.append(row);
+        }
+        out.append(END_OF_LIST);
+    }
+}
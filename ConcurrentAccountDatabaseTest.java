@@ -0,0 +1,110 @@
+package banking;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests the ConcurrentAccountDatabase class
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class ConcurrentAccountDatabaseTest {
+    private static final int THREADS = 8;
+    private static final int ATTEMPTS = 1000;
+
+    /**
+     * Test case #1
+     * Tests if withdrawals racing on one account never take more than
+     * the balance
+     */
+    @org.junit.Test
+    public void test_NoOverdraft() throws InterruptedException {
+        ConcurrentAccountDatabase database = new ConcurrentAccountDatabase();
+        Profile profile = new Profile("Bill", "Gates", new Date(1976, 1, 1));
+        database.open(new Checking(profile, 10000));
+        AtomicInteger withdrawn = new AtomicInteger();
+        runConcurrently(() -> {
+            for (int i = 0; i < ATTEMPTS; ++i) {
+                if (database.withdraw(AccountType.CHECKING, profile, 7).isOk()) {
+                    withdrawn.incrementAndGet();
+                }
+            }
+        });
+        assertEquals(10000 / 7, withdrawn.get());
+        assertEquals(ResultCode.INSUFFICIENT_FUNDS,
+                database.withdraw(AccountType.CHECKING, profile, 10000 % 7 + 1));
+        assertEquals(ResultCode.OK,
+                database.withdraw(AccountType.CHECKING, profile, 10000 % 7));
+    }
+
+    /**
+     * Test case #2
+     * Tests if deposits racing on the same accounts are all kept
+     */
+    @org.junit.Test
+    public void test_NoLostUpdates() throws InterruptedException {
+        ConcurrentAccountDatabase database = new ConcurrentAccountDatabase(2);
+        Profile bill = new Profile("Bill", "Gates", new Date(1976, 1, 1));
+        Profile jane = new Profile("Jane", "Doe", new Date(1980, 5, 5));
+        database.open(new Savings(bill, 0, false));
+        database.open(new Savings(jane, 0, false));
+        runConcurrently(() -> {
+            for (int i = 0; i < ATTEMPTS; ++i) {
+                database.deposit(new Savings(i % 2 == 0 ? bill : jane, 1,
+                        false));
+            }
+        });
+        long each = (long) THREADS * ATTEMPTS / 2;
+        assertEquals(ResultCode.INSUFFICIENT_FUNDS,
+                database.withdraw(AccountType.SAVINGS, bill, each + 1));
+        assertEquals(ResultCode.OK,
+                database.withdraw(AccountType.SAVINGS, bill, each));
+        assertEquals(ResultCode.OK,
+                database.withdraw(AccountType.SAVINGS, jane, each));
+    }
+
+    /**
+     * Test case #3
+     * Tests if a Checking deposit or withdrawal does not reach the
+     * holder's College Checking account
+     */
+    @org.junit.Test
+    public void test_FamilyTypeMismatch() {
+        ConcurrentAccountDatabase database = new ConcurrentAccountDatabase();
+        Profile profile = new Profile("Bill", "Gates", new Date(2003, 1, 1));
+        database.open(new CollegeChecking(profile, 10000, Campus.NEWARK));
+        assertFalse(database.deposit(new Checking(profile, 5000)));
+        assertFalse(database.withdraw(new Checking(profile, 5000)));
+        assertTrue(database.withdraw(new CollegeChecking(profile, 10000,
+                Campus.NEWARK)));
+    }
+
+    /**
+     * Runs a task on several threads started at the same moment and
+     * waits for all of them
+     * @param task the task
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private static void runConcurrently(Runnable task)
+            throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[THREADS];
+        for (int i = 0; i < THREADS; ++i) {
+            threads[i] = new Thread(() -> {
+                try {
+                    start.await();
+                }
+                catch (InterruptedException e) {
+                    return;
+                }
+                task.run();
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+}
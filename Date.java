@@ -1,29 +1,18 @@
 package com.banking;
 
-import java.util.Calendar;
-
 /**
- * Represents a date with year, month, and day
+ * Represents a date with year, month, and day, packed into a single int
+ * as year * 2^16 + month * 2^8 + day. Month and day are signed bytes, so
+ * dates that are not valid calendar dates, such as month -1, can still
+ * be held and reported, and the natural order of the packed ints is the
+ * order of the dates.
  * @author Jeeva Ramasamy, Parth Patel
  */
 public class Date implements Comparable<Date> {
-    private int year;
-    private int month;
-    private int day;
-
-    private static final int GREATER_THAN = 1;
-    private static final int LESS_THAN = -1;
+    private final int packed; //year, month, and day
 
     private static final int JANUARY = 1;
-    private static final int MARCH = 3;
-    private static final int APRIL = 4;
-    private static final int MAY = 5;
-    private static final int JUNE = 6;
-    private static final int JULY = 7;
-    private static final int AUGUST = 8;
-    private static final int SEPTEMBER = 9;
-    private static final int OCTOBER = 10;
-    private static final int NOVEMBER = 11;
+    private static final int FEBRUARY = 2;
     private static final int DECEMBER = 12;
 
     private static final int QUADRENNIAL = 4;
@@ -31,23 +20,157 @@ public class Date implements Comparable<Date> {
     private static final int QUARTERCENTENNIAL = 400;
 
     private static final int FIRST_DAY_OF_MONTH = 1;
-    private static final int MAX_DAYS = 31;
-    private static final int FEBRUARY_DAYS = 28;
-    private static final int FEBRUARY_DAYS_LEAP_YEAR = 29;
-    private static final int CALENDAR_MONTH_OFFSET = 1;
+    private static final int[] DAYS_IN_MONTH =
+            {0, 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+    private static final int LEAP_DAY = 1;
 
     private static final int AGE_OFFSET = 1;
 
+    private static final int MIN_YEAR = Short.MIN_VALUE + 1; //lower years overflow the packed int
+    private static final int MAX_YEAR = Short.MAX_VALUE;
+
+    private static final int YEAR_SHIFT = 16;
+    private static final int MONTH_SHIFT = 8;
+    private static final int RADIX = 10;
+    private static final char SEPARATOR = '/';
+
     /**
-     * Creates a Date object with the specified year, month, and day
+     * Creates a Date object with the specified year, month, and day.
+     * A month or day outside -128 to 127, or a year outside -32767 to
+     * 32767, is held as the nearest value in range. Those end values are
+     * never part of a valid date, so a clamped date is reported as not
+     * valid rather than read as another date.
      * @param year the year in the date of format yyyy
      * @param month the month in the date of format mm
      * @param day the day in the date of format dd
      */
     public Date(int year, int month, int day) {
-        this.year = year;
-        this.month = month;
-        this.day = day;
+        this.packed = pack(year, month, day);
+    }
+
+    /**
+     * Creates a Date object from a packed date
+     * @param packed the packed date
+     */
+    private Date(int packed) {
+        this.packed = packed;
+    }
+
+    /**
+     * Packs a date into an int whose natural order is the order of the
+     * dates
+     * @param year the year in the date of format yyyy
+     * @param month the month in the date of format mm
+     * @param day the day in the date of format dd
+     * @return the packed date
+     */
+    static int pack(int year, int month, int day) {
+        year = Math.max(MIN_YEAR, Math.min(MAX_YEAR, year));
+        month = Math.max(Byte.MIN_VALUE, Math.min(Byte.MAX_VALUE, month));
+        day = Math.max(Byte.MIN_VALUE, Math.min(Byte.MAX_VALUE, day));
+        return (year << YEAR_SHIFT) + (month << MONTH_SHIFT) + day;
+    }
+
+    /**
+     * Creates a Date object from a packed date
+     * @param packed the packed date
+     * @return the date
+     */
+    static Date fromPacked(int packed) {
+        return new Date(packed);
+    }
+
+    /**
+     * Returns the date packed into an int
+     * @return the packed date
+     */
+    int toPacked() {
+        return packed;
+    }
+
+    /**
+     * Parses a date in the format mm/dd/yyyy from part of a character
+     * sequence without creating intermediate objects
+     * @param text sequence holding the date
+     * @param start index of the first character of the date
+     * @param end index after the last character of the date
+     * @return the date, which may not be a valid calendar date
+     * @throws IllegalArgumentException if the text is not three numbers
+     *         separated by slashes
+     */
+    public static Date parse(CharSequence text, int start, int end) {
+        int monthEnd = indexOf(text, SEPARATOR, start, end);
+        int dayEnd = indexOf(text, SEPARATOR, monthEnd + 1, end);
+        if (dayEnd == end || indexOf(text, SEPARATOR, dayEnd + 1, end) != end) {
+            throw new IllegalArgumentException("Not a date: "
+                    + text.subSequence(start, end));
+        }
+        return new Date(Integer.parseInt(text, dayEnd + 1, end, RADIX),
+                Integer.parseInt(text, start, monthEnd, RADIX),
+                Integer.parseInt(text, monthEnd + 1, dayEnd, RADIX));
+    }
+
+    /**
+     * Finds a character in part of a character sequence
+     * @param text the sequence
+     * @param c character to be found
+     * @param start index the search starts at
+     * @param end index the search stops at
+     * @return index of the character, or end if not found
+     */
+    private static int indexOf(CharSequence text, char c, int start,
+                               int end) {
+        for (int i = start; i < end; ++i) {
+            if (text.charAt(i) == c) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Returns the year of a packed date
+     * @param packed the packed date
+     * @return year in format yyyy
+     */
+    private static int yearOf(int packed) {
+        return (packed - monthDayOf(packed)) >> YEAR_SHIFT;
+    }
+
+    /**
+     * Returns the month and day of a packed date as month * 2^8 + day,
+     * which orders the days of a year
+     * @param packed the packed date
+     * @return month and day
+     */
+    private static int monthDayOf(int packed) {
+        int day = (byte) packed;
+        int month = (byte) ((packed - day) >> MONTH_SHIFT);
+        return (month << MONTH_SHIFT) + day;
+    }
+
+    /**
+     * Returns the year of the date
+     * @return year in format yyyy
+     */
+    public int getYear() {
+        return yearOf(this.packed);
+    }
+
+    /**
+     * Returns the month of the date
+     * @return month in format mm
+     */
+    public int getMonth() {
+        return (byte) ((this.packed - getDay()) >> MONTH_SHIFT);
+    }
+
+    /**
+     * Returns the day of the date
+     * @return day in format dd
+     */
+    public int getDay() {
+        return (byte) this.packed;
     }
 
     /**
@@ -55,9 +178,10 @@ public class Date implements Comparable<Date> {
      * @return true if leap year, false otherwise
      */
     private boolean isLeapYear() {
-        if (this.year % QUADRENNIAL == 0) {
-            if (this.year % CENTENNIAL == 0) {
-                return this.year % QUARTERCENTENNIAL == 0;
+        int year = getYear();
+        if (year % QUADRENNIAL == 0) {
+            if (year % CENTENNIAL == 0) {
+                return year % QUARTERCENTENNIAL == 0;
             }
             else {
                 return true;
@@ -71,71 +195,41 @@ public class Date implements Comparable<Date> {
      * @return true if valid date, false otherwise
      */
     public boolean isValid()  {
-        // Checks if the month is valid
-        if (this.month < JANUARY || this.month > DECEMBER) {
+        int year = getYear();
+        int month = getMonth();
+        int day = getDay();
+        if (year <= MIN_YEAR || year >= MAX_YEAR || month < JANUARY
+                || month > DECEMBER || day < FIRST_DAY_OF_MONTH) {
             return false;
         }
-
-        // Checks if the day is valid
-        if (this.day < FIRST_DAY_OF_MONTH) {
-            return false;
-        }
-        else if (this.month == JANUARY || this.month == MARCH
-                || this.month == MAY || this.month == JULY
-                || this.month == AUGUST || this.month == OCTOBER
-                || this.month == DECEMBER) {
-            return this.day <= MAX_DAYS;
-        }
-        else if (this.month == APRIL || this.month == JUNE
-                || this.month == SEPTEMBER || this.month == NOVEMBER) {
-            return this.day < MAX_DAYS;
-        }
-        else {
-            if (isLeapYear()) {
-                if (this.day > FEBRUARY_DAYS_LEAP_YEAR) {
-                    return false;
-                }
-                else {
-                    return true;
-                }
-            }
-            else {
-                return this.day <= FEBRUARY_DAYS;
-            }
+        int daysInMonth = DAYS_IN_MONTH[month];
+        if (month == FEBRUARY && isLeapYear()) {
+            daysInMonth += LEAP_DAY;
         }
+        return day <= daysInMonth;
     }
 
     /**
-     * Returns age of potential client
+     * Returns age of potential client as of today's date on the
+     * default clock
      * @return age
      */
     public int getAge() {
-        int todayYear = Calendar.getInstance().get(Calendar.YEAR);
-        int todayMonth = Calendar.getInstance().get(Calendar.MONTH)
-                + CALENDAR_MONTH_OFFSET;
-        int todayDay = Calendar.getInstance().get(Calendar.DATE);
-
-        int age = todayYear - this.year;
-        if ((todayMonth < this.month)
-                || (todayMonth == this.month && todayDay < this.day)) {
+        int today = TodayClock.getDefault().today();
+        int age = yearOf(today) - getYear();
+        if (monthDayOf(today) < monthDayOf(this.packed)) {
             return age - AGE_OFFSET;
         }
         return age;
     }
 
     /**
-     * Checks whether if the date of birth is today or in the future
+     * Checks whether if the date of birth is today or in the future,
+     * using today's date on the default clock
      * @return true if today or future date, false otherwise
      */
     public boolean isToday_Or_FutureDate() {
-        int todayYear = Calendar.getInstance().get(Calendar.YEAR);
-        int todayMonth = Calendar.getInstance().get(Calendar.MONTH)
-                + CALENDAR_MONTH_OFFSET;
-        int todayDay = Calendar.getInstance().get(Calendar.DATE);
-        Date today = new Date(todayYear, todayMonth, todayDay);
-
-        // date of birth is today or in the future
-        return this.compareTo(today) >= 0;
+        return this.packed >= TodayClock.getDefault().today();
     }
 
     /**
@@ -147,23 +241,29 @@ public class Date implements Comparable<Date> {
      */
     @Override
     public int compareTo(Date date) {
-        if (this.year > date.year) {
-            return GREATER_THAN;
-        }
-        else if (this.year < date.year) {
-            return LESS_THAN;
-        }
-        else {
-            if (this.month > date.month) {
-                return GREATER_THAN;
-            }
-            else if (this.month < date.month) {
-                return LESS_THAN;
-            }
-            else {
-                return Integer.compare(this.day, date.day);
-            }
+        return Integer.compare(this.packed, date.packed);
+    }
+
+    /**
+     * Checks if this date is equal to the specified object
+     * @param obj specified object
+     * @return true if the dates are the same, false otherwise
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof Date) {
+            return this.packed == ((Date) obj).packed;
         }
+        return false;
+    }
+
+    /**
+     * Returns a hash code consistent with equals
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        return this.packed;
     }
 
     /**
@@ -172,6 +272,17 @@ public class Date implements Comparable<Date> {
      */
     @Override
     public String toString() {
-        return "" + this.month + '/' + this.day + '/' + this.year;
+        return appendTo(new StringBuilder()).toString();
+    }
+
+    /**
+     * Writes the date into the specified builder without creating
+     * intermediate objects
+     * @param out builder the date is written to
+     * @return the specified builder with the date in format mm/dd/yyyy
+     */
+    public StringBuilder appendTo(StringBuilder out) {
+        return out.append(getMonth()).append(SEPARATOR).append(getDay())
+                .append(SEPARATOR).append(getYear());
     }
-}
\ No newline at end of file
+}
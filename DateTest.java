@@ -95,4 +95,135 @@ public class DateTest {
         Date date = new Date(2020, 6, 19);
         assertTrue(date.isValid());
     }
-}
\ No newline at end of file
+
+    /**
+     * Test case #9
+     * Tests if the age counts a birthday only once it has been reached
+     * and a birthday of today is not a past date
+     */
+    @org.junit.Test
+    public void testAge_FixedClock() {
+        TodayClock clock = TodayClock.getDefault();
+        TodayClock.setDefault(TodayClock.fixed(2024, 3, 15));
+        try {
+            assertEquals(24, new Date(2000, 3, 15).getAge());
+            assertEquals(23, new Date(2000, 3, 16).getAge());
+            assertTrue(new Date(2024, 3, 15).isToday_Or_FutureDate());
+            assertFalse(new Date(2024, 3, 14).isToday_Or_FutureDate());
+        }
+        finally {
+            TodayClock.setDefault(clock);
+        }
+    }
+
+    /**
+     * Test case #10
+     * Tests if a packed date reads back the year, month and day it was
+     * packed from, including months and days that are not valid and
+     * the ends of the range held
+     */
+    @org.junit.Test
+    public void testPack_RoundTrip() {
+        int[][] dates = {{2024, 2, 29}, {1, 1, 1}, {0, 0, 0}, {-5, -1, 0},
+            {1976, 12, 31}, {2023, 13, 32}, {32767, 127, 127},
+            {-32767, -128, -128}, {-32767, 127, 127}, {32767, -128, -128}};
+        for (int[] ymd : dates) {
+            Date date = Date.fromPacked(Date.pack(ymd[0], ymd[1], ymd[2]));
+            assertEquals(ymd[0], date.getYear());
+            assertEquals(ymd[1], date.getMonth());
+            assertEquals(ymd[2], date.getDay());
+            assertEquals(new Date(ymd[0], ymd[1], ymd[2]), date);
+            assertEquals(date, Date.fromPacked(date.toPacked()));
+        }
+    }
+
+    /**
+     * Test case #11
+     * Tests if the order of packed dates is the order of year, then
+     * month, then day, and is the order compareTo reports
+     */
+    @org.junit.Test
+    public void testPack_OrderMatchesCompareTo() {
+        Date[] ordered = {new Date(-32767, -128, -128),
+            new Date(-1, 12, 31), new Date(0, -1, 5), new Date(0, 0, 127),
+            new Date(0, 1, -3), new Date(1999, 12, 31), new Date(2000, 1, 1),
+            new Date(2000, 1, 2), new Date(2000, 2, 1),
+            new Date(32767, 127, 127)};
+        for (int i = 0; i < ordered.length; ++i) {
+            for (int j = 0; j < ordered.length; ++j) {
+                int expected = Integer.compare(i, j);
+                assertEquals(expected, Integer.signum(Integer.compare(
+                        ordered[i].toPacked(), ordered[j].toPacked())));
+                assertEquals(expected,
+                        Integer.signum(ordered[i].compareTo(ordered[j])));
+            }
+        }
+    }
+
+    /**
+     * Test case #12
+     * Tests if text that is not three numbers separated by slashes
+     * is refused
+     */
+    @org.junit.Test
+    public void testParse_Malformed() {
+        String[] bad = {"", "1", "1/2", "1/2/", "/1/2000", "1//2000",
+            "1/2/3/4", "a/1/2000", "1/1/20x0", "1.1.2000",
+            "99999999999/1/2000"};
+        for (String text : bad) {
+            try {
+                Date.parse(text, 0, text.length());
+                fail("Parsed " + text);
+            }
+            catch (IllegalArgumentException e) {
+                //expected
+            }
+        }
+    }
+
+    /**
+     * Test case #13
+     * Tests if a well-formed date outside the calendar is read as
+     * it was written and reported as not valid
+     */
+    @org.junit.Test
+    public void testParse_OutOfRange() {
+        Date date = Date.parse("13/40/2000", 0, 10);
+        assertEquals(13, date.getMonth());
+        assertEquals(40, date.getDay());
+        assertEquals(2000, date.getYear());
+        assertFalse(date.isValid());
+        assertFalse(Date.parse("2/29/2023", 0, 9).isValid());
+        assertFalse(Date.parse("0/1/2000", 0, 8).isValid());
+        String line = "O C Bill Gates 2/29/2024 100";
+        Date leap = Date.parse(line, 15, 24);
+        assertTrue(leap.isValid());
+        assertEquals("2/29/2024", leap.toString());
+    }
+
+    /**
+     * Test case #14
+     * Tests if a year, month or day too large to hold is clamped to the
+     * end of its range, is never a valid date, and keeps its order
+     */
+    @org.junit.Test
+    public void testPack_ClampedNeverValid() {
+        Date month = new Date(2000, 300, 1);
+        assertEquals(127, month.getMonth());
+        assertFalse(month.isValid());
+        Date day = new Date(2000, 1, -300);
+        assertEquals(-128, day.getDay());
+        assertFalse(day.isValid());
+        Date late = Date.parse("1/1/99999", 0, 9);
+        assertEquals(32767, late.getYear());
+        assertFalse(late.isValid());
+        Date early = new Date(-99999, 1, 1);
+        assertEquals(-32767, early.getYear());
+        assertFalse(early.isValid());
+        assertFalse(new Date(32767, 1, 1).isValid());
+        assertTrue(new Date(32766, 12, 31).isValid());
+        assertTrue(new Date(-32766, 1, 1).isValid());
+        assertTrue(early.compareTo(new Date(-32766, 1, 1)) < 0);
+        assertTrue(late.compareTo(new Date(32766, 12, 31)) > 0);
+    }
+}
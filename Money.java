@@ -0,0 +1,179 @@
+package com.banking;
+
+/**
+ * Fixed-point arithmetic on amounts of money held as a primitive long
+ * number of cents, so balances can be added, compared and stored in
+ * primitive arrays without rounding drift or allocation
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public final class Money {
+    private static final int CENTS_PER_DOLLAR = 100;
+    private static final int BASIS_POINTS = 10000;
+    private static final int MONTHS_IN_YEAR = 12;
+    private static final long MONTHLY_RATE_DENOMINATOR =
+            (long) BASIS_POINTS * MONTHS_IN_YEAR;
+    private static final int HALF = 2;
+    private static final int RADIX = 10;
+    private static final int DIGITS_PER_GROUP = 3;
+    private static final int LONG_DIGITS = 19;
+    private static final int CENTS_DIGITS = 2;
+    private static final long MAX_PARSED_CENTS = Long.MAX_VALUE / 1000;
+    private static final long[] POWERS_OF_TEN = powersOfTen();
+
+    /**
+     * Prevents instantiation, all operations are static
+     */
+    private Money() {
+    }
+
+    /**
+     * Converts a dollar amount to cents, rounding to the nearest cent
+     * @param dollars amount in dollars
+     * @return amount in cents
+     */
+    public static long fromDollars(double dollars) {
+        return Math.round(dollars * CENTS_PER_DOLLAR);
+    }
+
+    /**
+     * Parses a decimal dollar amount such as 1500, -12.5 or 2000.00 from
+     * part of a character sequence without creating intermediate objects.
+     * Digits past the cents are rounded half away from zero.
+     * @param text sequence holding the amount
+     * @param start index of the first character of the amount
+     * @param end index after the last character of the amount
+     * @return amount in cents
+     * @throws NumberFormatException if the characters are not an amount
+     */
+    public static long parse(CharSequence text, int start, int end) {
+        boolean isNegative = false;
+        if (start < end && (text.charAt(start) == '-'
+                || text.charAt(start) == '+')) {
+            isNegative = text.charAt(start) == '-';
+            ++start;
+        }
+        long cents = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        boolean roundUp = false;
+        for (int i = start; i < end; ++i) {
+            char c = text.charAt(i);
+            if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("Not a valid amount: "
+                        + text.subSequence(start, end));
+            }
+            ++digits;
+            if (fractionDigits < 0 || fractionDigits < CENTS_DIGITS) {
+                cents = cents * RADIX + (c - '0');
+                if (fractionDigits >= 0) {
+                    ++fractionDigits;
+                }
+            }
+            else if (fractionDigits == CENTS_DIGITS) {
+                roundUp = c >= '5';
+                ++fractionDigits;
+            }
+            if (cents > MAX_PARSED_CENTS) {
+                throw new NumberFormatException("Amount too large: "
+                        + text.subSequence(start, end));
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Not a valid amount: "
+                    + text.subSequence(start, end));
+        }
+        for (int i = Math.max(fractionDigits, 0); i < CENTS_DIGITS; ++i) {
+            cents *= RADIX;
+        }
+        if (roundUp) {
+            ++cents;
+        }
+        return isNegative ? -cents : cents;
+    }
+
+    /**
+     * Returns one month of interest on an amount, rounded half away from
+     * zero to the nearest cent
+     * @param cents amount in cents
+     * @param annualRate annual interest rate in basis points (1/100 of 1%)
+     * @return monthly interest in cents
+     */
+    public static long monthlyInterest(long cents, int annualRate) {
+        return divideRounded(cents * annualRate, MONTHLY_RATE_DENOMINATOR);
+    }
+
+    /**
+     * Divides two numbers, rounding half away from zero
+     * @param dividend the dividend
+     * @param divisor the positive divisor
+     * @return rounded quotient
+     */
+    private static long divideRounded(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) * HALF >= divisor) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+
+    /**
+     * Returns a string representation of an amount
+     * in the format: $#,##0.00
+     * @param cents amount in cents
+     * @return string version of amount
+     */
+    public static String format(long cents) {
+        return appendTo(new StringBuilder(), cents).toString();
+    }
+
+    /**
+     * Writes an amount in the format $#,##0.00 digit by digit into the
+     * specified builder. Holds no state, so it is safe to call from
+     * any thread.
+     * @param out builder the amount is written to
+     * @param cents amount in cents
+     * @return the specified builder
+     */
+    public static StringBuilder appendTo(StringBuilder out, long cents) {
+        if (cents < 0) {
+            out.append('-');
+            cents = -cents; //Long.MIN_VALUE stays negative, read as unsigned
+        }
+        out.append('$');
+        long dollars = Long.divideUnsigned(cents, CENTS_PER_DOLLAR);
+        int change = (int) Long.remainderUnsigned(cents, CENTS_PER_DOLLAR);
+
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length
+                && dollars >= POWERS_OF_TEN[digits]) {
+            ++digits;
+        }
+        for (int i = digits - 1; i >= 0; --i) {
+            out.append((char) ('0' + dollars / POWERS_OF_TEN[i] % RADIX));
+            if (i > 0 && i % DIGITS_PER_GROUP == 0) {
+                out.append(',');
+            }
+        }
+        return out.append('.')
+                .append((char) ('0' + change / RADIX))
+                .append((char) ('0' + change % RADIX));
+    }
+
+    /**
+     * Creates the table of every power of ten that fits in a long
+     * @return powers of ten, starting from 1
+     */
+    private static long[] powersOfTen() {
+        long[] powers = new long[LONG_DIGITS];
+        powers[0] = 1;
+        for (int i = 1; i < powers.length; ++i) {
+            powers[i] = powers[i - 1] * RADIX;
+        }
+        return powers;
+    }
+}
@@ -6,14 +6,7 @@ package com.banking;
  */
 public class MoneyMarket extends Savings {
     private int withdrawal; //number of withdrawal;
-    private static final double INTEREST_RATE = 0.045;
-    private static final double MONTHLY_FEE = 25;
-    private static final double NO_FEE = 0;
-    private static final double MIN_BAL_FOR_BENEFITS = 2000;
-    private static final double LOYAL_EXTRA_RATE = 0.0025;
-    private static final int WITHDRAWAL_FEE = 10;
     private static final int NONE = 0;
-    private static final int MONTHS_IN_YEAR = 12;
     private static final int LESS_THAN = -1;
     private static final int GREATER_THAN = 1;
     private static final String ACCT_TYPE = "Money Market";
@@ -23,9 +16,9 @@ public class MoneyMarket extends Savings {
      * Creates a Money Market account object with the specified
      * holder and balance
      * @param holder account holder's profile
-     * @param balance account balance
+     * @param balance account balance in cents
      */
-    public MoneyMarket(Profile holder, double balance) {
+    public MoneyMarket(Profile holder, long balance) {
         super(holder, balance, true);
         this.withdrawal = NONE;
     }
@@ -38,33 +31,14 @@ public class MoneyMarket extends Savings {
         super(holder);
     }
 
-    /**
-     * Returns the monthly interest for the money market account
-     * @return monthly interest
-     */
-    @Override
-    public double monthlyInterest() {
-        double interestRate = INTEREST_RATE;
-        if (this.isLoyal) {
-            interestRate += LOYAL_EXTRA_RATE;
-        }
-        return interestRate / MONTHS_IN_YEAR;
-    }
-
     /**
      * Returns the monthly fee for the money market account
-     * @return monthly fee
+     * @param rates the rate table
+     * @return monthly fee in cents
      */
     @Override
-    public double monthlyFee() {
-        double fee = MONTHLY_FEE;
-        if (this.balance >= MIN_BAL_FOR_BENEFITS) {
-            fee = NO_FEE;
-        }
-        if (this.withdrawal > 3) {
-            fee += WITHDRAWAL_FEE;
-        }
-        return fee;
+    public long monthlyFee(RateTable rates) {
+        return rates.monthlyFee(getType(), this.balance, this.withdrawal);
     }
 
     /**
@@ -85,6 +59,33 @@ public class MoneyMarket extends Savings {
         return ACCT_SYMBOL;
     }
 
+    /**
+     * Returns the predefined account type
+     * @return predefined account type
+     */
+    @Override
+    public AccountType getType() {
+        return AccountType.MONEY_MARKET;
+    }
+
+    /**
+     * Returns the number of withdrawals this month
+     * @return number of withdrawals
+     */
+    public int getWithdrawals() {
+        return this.withdrawal;
+    }
+
+    /**
+     * Restores the loyalty and withdrawal count saved in a snapshot
+     * @param isLoyal whether the account holder is loyal
+     * @param withdrawal number of withdrawals this month
+     */
+    void restore(boolean isLoyal, int withdrawal) {
+        this.isLoyal = isLoyal;
+        this.withdrawal = withdrawal;
+    }
+
     /**
      * Increments for each time money is withdrawn
      */
@@ -100,10 +101,19 @@ public class MoneyMarket extends Savings {
     }
 
     /**
-     * Updates loyalty of account holder based on balance
+     * Updates loyalty of account holder based on balance under the rate
+     * table in effect
      */
     public void updateLoyalty() {
-        if (this.balance < MIN_BAL_FOR_BENEFITS) {
+        updateLoyalty(RateTable.current());
+    }
+
+    /**
+     * Updates loyalty of account holder based on balance
+     * @param rates the rate table
+     */
+    public void updateLoyalty(RateTable rates) {
+        if (this.balance < rates.getLoyaltyBalance()) {
             this.isLoyal = false;
         }
         else {
@@ -146,13 +156,15 @@ public class MoneyMarket extends Savings {
     }
 
     /**
-     * Returns a string representation of the Money Market account
+     * Writes the Money Market account into the specified builder
      * in the format: Money Market::Savings_account::withdrawal: numOfWithdrawals
-     * @return string version of money market account
+     * @param out builder the money market account is written to
+     * @return the specified builder
      */
     @Override
-    public String toString() {
-        return ACCT_TYPE + "::" + super.toString() + "::withdrawal: "
-                + this.withdrawal;
+    public StringBuilder appendTo(StringBuilder out) {
+        out.append(ACCT_TYPE).append("::");
+        return super.appendTo(out).append("::withdrawal: ")
+                .append(this.withdrawal);
     }
 }
@@ -0,0 +1,139 @@
+package banking;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the Money class
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class MoneyTest {
+
+    /**
+     * Test case #1
+     * Tests if zero and amounts under a dollar are written with a
+     * leading zero dollar and two cent digits
+     */
+    @org.junit.Test
+    public void testAppendTo_Zero() {
+        assertEquals("$0.00", Money.format(0));
+        assertEquals("$0.05", Money.format(5));
+        assertEquals("$0.99", Money.format(99));
+    }
+
+    /**
+     * Test case #2
+     * Tests if the dollars are grouped by thousands only
+     * once they have more than three digits
+     */
+    @org.junit.Test
+    public void testAppendTo_Grouping() {
+        assertEquals("$999.99", Money.format(99999));
+        assertEquals("$1,000.00", Money.format(100000));
+        assertEquals("$12,345.67", Money.format(1234567));
+        assertEquals("$1,000,000.01", Money.format(100000001));
+        assertEquals("$92,233,720,368,547,758.07",
+                Money.format(Long.MAX_VALUE));
+    }
+
+    /**
+     * Test case #3
+     * Tests if a negative amount is written with one leading minus sign,
+     * including the smallest long, whose negation overflows
+     */
+    @org.junit.Test
+    public void testAppendTo_Negative() {
+        assertEquals("-$0.01", Money.format(-1));
+        assertEquals("-$1,234.50", Money.format(-123450));
+        assertEquals("-$92,233,720,368,547,758.08",
+                Money.format(Long.MIN_VALUE));
+    }
+
+    /**
+     * Test case #4
+     * Tests if the amount is appended after what the builder holds
+     */
+    @org.junit.Test
+    public void testAppendTo_Builder() {
+        StringBuilder out = new StringBuilder("Balance ");
+        assertSame(out, Money.appendTo(out, 250000));
+        assertEquals("Balance $2,500.00", out.toString());
+    }
+
+    /**
+     * Test case #5
+     * Tests if whole, one-decimal and two-decimal amounts are read
+     * as exact cents
+     */
+    @org.junit.Test
+    public void testParse_Exact() {
+        assertEquals(150000, parse("1500"));
+        assertEquals(-1250, parse("-12.5"));
+        assertEquals(200000, parse("2000.00"));
+        assertEquals(1, parse("+0.01"));
+        assertEquals(50, parse(".5"));
+        assertEquals(500, parse("5."));
+    }
+
+    /**
+     * Test case #6
+     * Tests if only the third decimal rounds, half away from zero
+     */
+    @org.junit.Test
+    public void testParse_ThirdDecimalRounding() {
+        assertEquals(1234, parse("12.344"));
+        assertEquals(1235, parse("12.345"));
+        assertEquals(-1235, parse("-12.345"));
+        assertEquals(1234, parse("12.3449"));
+        assertEquals(1, parse("0.005"));
+        assertEquals(0, parse("0.004"));
+        assertEquals(100, parse("0.995"));
+    }
+
+    /**
+     * Test case #7
+     * Tests if text that is not an amount, or is too large to hold,
+     * is refused
+     */
+    @org.junit.Test
+    public void testParse_BadInput() {
+        String[] bad = {"", "-", "+", ".", "abc", "12a", "1.2.3", "1,000",
+            "--1", " 1", "1e3", "99999999999999999999"};
+        for (String text : bad) {
+            try {
+                parse(text);
+                fail("Parsed " + text);
+            }
+            catch (NumberFormatException e) {
+                //expected
+            }
+        }
+    }
+
+    /**
+     * Test case #8
+     * Tests if only the characters between start and end are read
+     */
+    @org.junit.Test
+    public void testParse_Bounds() {
+        String line = "D C Bill Gates 1/1/1976 12.50 x";
+        assertEquals(1250, Money.parse(line, 24, 29));
+        assertEquals(1200, Money.parse(line, 24, 26));
+        assertEquals(50, Money.parse(line, 26, 28));
+        try {
+            Money.parse(line, 24, 24);
+            fail("Parsed an empty range");
+        }
+        catch (NumberFormatException e) {
+            //expected
+        }
+    }
+
+    /**
+     * Parses a whole string as an amount
+     * @param text the amount
+     * @return amount in cents
+     */
+    private static long parse(String text) {
+        return Money.parse(text, 0, text.length());
+    }
+}
@@ -0,0 +1,119 @@
+package com.banking;
+
+/**
+ * Represents the interest paid and fees collected by one month-end run,
+ * per account type. Parallel runs collect partial totals per thread and
+ * merge them.
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class MonthlyTotals {
+    private final long[] interest; //cents by type code
+    private final long[] fees; //cents by type code
+
+    /**
+     * Creates empty totals
+     */
+    public MonthlyTotals() {
+        interest = new long[AccountType.values().length];
+        fees = new long[AccountType.values().length];
+    }
+
+    /**
+     * Returns the interest paid to accounts of the type
+     * @param type account type
+     * @return interest in cents
+     */
+    public long getInterest(AccountType type) {
+        return interest[type.getTypeCode()];
+    }
+
+    /**
+     * Returns the fees collected from accounts of the type
+     * @param type account type
+     * @return fees in cents
+     */
+    public long getFees(AccountType type) {
+        return fees[type.getTypeCode()];
+    }
+
+    /**
+     * Returns the interest paid to all accounts
+     * @return interest in cents
+     */
+    public long getTotalInterest() {
+        long total = 0;
+        for (long amount : interest) {
+            total += amount;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the fees collected from all accounts
+     * @return fees in cents
+     */
+    public long getTotalFees() {
+        long total = 0;
+        for (long amount : fees) {
+            total += amount;
+        }
+        return total;
+    }
+
+    /**
+     * Adds a month of interest to the account, then takes the monthly fee
+     * and clears the Money Market withdrawal count, counting both in the
+     * totals. Money Market loyalty is first settled under the same table.
+     * @param acct the account
+     * @param rates rate table of the whole run
+     */
+    void apply(Account acct, RateTable rates) {
+        if (acct instanceof MoneyMarket) {
+            ((MoneyMarket) acct).updateLoyalty(rates);
+        }
+        long paid = acct.monthlyInterest(rates);
+        acct.addBalance(paid);
+        long fee = acct.monthlyFee(rates);
+        acct.subBalance(fee);
+        if (acct instanceof MoneyMarket) {
+            ((MoneyMarket) acct).clearWithdrawals();
+        }
+        add(acct.getType(), paid, fee);
+    }
+
+    /**
+     * Counts interest and fees for an account type
+     * @param type account type
+     * @param paid interest paid in cents
+     * @param fee fees collected in cents
+     */
+    void add(AccountType type, long paid, long fee) {
+        interest[type.getTypeCode()] += paid;
+        fees[type.getTypeCode()] += fee;
+    }
+
+    /**
+     * Adds the specified totals to these totals
+     * @param other totals to be added
+     * @return these totals
+     */
+    MonthlyTotals merge(MonthlyTotals other) {
+        for (int i = 0; i < interest.length; ++i) {
+            interest[i] += other.interest[i];
+            fees[i] += other.fees[i];
+        }
+        return this;
+    }
+
+    /**
+     * Returns a string representation of the totals
+     * in the format: interest $#,##0.00, fees $#,##0.00
+     * @return string version of the totals
+     */
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder("interest ");
+        Money.appendTo(out, getTotalInterest()).append(", fees ");
+        return Money.appendTo(out, getTotalFees()).toString();
+    }
+}
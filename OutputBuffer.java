@@ -0,0 +1,106 @@
+package com.banking;
+
+/**
+ * Collects output text written by any thread until the user interface
+ * takes it, so the text can be shown once per frame instead of once per
+ * message. The buffer keeps at most about twice its capacity; past that,
+ * the oldest lines are dropped and only their count is reported.
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class OutputBuffer implements Appendable {
+    private final int capacity; //characters kept after trimming
+    private final StringBuilder pending = new StringBuilder();
+    private long dropped; //characters dropped since the last drain
+
+    private static final int EMPTY = 0;
+    private static final int TRIM_FACTOR = 2;
+    private static final char NEWLINE = '\n';
+
+    /**
+     * Creates an empty buffer
+     * @param capacity number of characters kept when the buffer is trimmed
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public OutputBuffer(int capacity) {
+        if (capacity <= EMPTY) {
+            throw new IllegalArgumentException("Non-positive capacity: "
+                    + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Adds text to the end of the buffer
+     * @param text the text
+     * @return this buffer
+     */
+    @Override
+    public synchronized OutputBuffer append(CharSequence text) {
+        pending.append(text);
+        trim();
+        return this;
+    }
+
+    /**
+     * Adds part of a text to the end of the buffer
+     * @param text the text
+     * @param start index of the first character added
+     * @param end index after the last character added
+     * @return this buffer
+     */
+    @Override
+    public synchronized OutputBuffer append(CharSequence text, int start,
+                                            int end) {
+        pending.append(text, start, end);
+        trim();
+        return this;
+    }
+
+    /**
+     * Adds a character to the end of the buffer
+     * @param c the character
+     * @return this buffer
+     */
+    @Override
+    public synchronized OutputBuffer append(char c) {
+        pending.append(c);
+        trim();
+        return this;
+    }
+
+    /**
+     * Takes all the text in the buffer, leaving it empty
+     * @return the text, preceded by a note if lines were dropped,
+     *         or null if nothing was added since the last time
+     */
+    public synchronized String drain() {
+        if (pending.length() == EMPTY && dropped == EMPTY) {
+            return null;
+        }
+        String text = pending.toString();
+        if (dropped != EMPTY) {
+            text = "..." + dropped + " characters not shown\n" + text;
+        }
+        pending.setLength(EMPTY);
+        dropped = EMPTY;
+        return text;
+    }
+
+    /**
+     * Drops the oldest whole lines once the buffer holds twice its
+     * capacity, keeping about its capacity; trimming in large steps keeps
+     * the cost of moving the kept text low
+     */
+    private void trim() {
+        if (pending.length() <= TRIM_FACTOR * capacity) {
+            return;
+        }
+        int cut = pending.length() - capacity;
+        int lineEnd = pending.indexOf(String.valueOf(NEWLINE), cut - 1);
+        if (lineEnd >= EMPTY) {
+            cut = lineEnd + 1;
+        }
+        pending.delete(EMPTY, cut);
+        dropped += cut;
+    }
+}
@@ -0,0 +1,99 @@
+package com.banking;
+
+/**
+ * Represents one deposit into or withdrawal from an account, as found in
+ * a batch of postings applied together to the account database
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public final class Posting {
+    private final AccountType type;
+    private final Profile holder;
+    private final long amount; //cents
+    private final boolean isDeposit; //false if a withdrawal
+
+    private static final long EMPTY = 0;
+
+    /**
+     * Creates a posting on an account
+     * @param type account type
+     * @param holder account holder's profile
+     * @param amount amount in cents
+     * @param isDeposit true if a deposit, false if a withdrawal
+     * @throws IllegalArgumentException if the type or holder is missing,
+     *         or the amount is not positive
+     */
+    private Posting(AccountType type, Profile holder, long amount,
+                    boolean isDeposit) {
+        if (type == null || holder == null) {
+            throw new IllegalArgumentException("Missing account of posting");
+        }
+        if (amount <= EMPTY) {
+            throw new IllegalArgumentException("Non-positive amount: "
+                    + amount);
+        }
+        this.type = type;
+        this.holder = holder;
+        this.amount = amount;
+        this.isDeposit = isDeposit;
+    }
+
+    /**
+     * Creates a deposit into an account
+     * @param type account type
+     * @param holder account holder's profile
+     * @param amount deposit amount in cents
+     * @return the posting
+     * @throws IllegalArgumentException if the type or holder is missing,
+     *         or the amount is not positive
+     */
+    public static Posting deposit(AccountType type, Profile holder,
+                                  long amount) {
+        return new Posting(type, holder, amount, true);
+    }
+
+    /**
+     * Creates a withdrawal from an account
+     * @param type account type
+     * @param holder account holder's profile
+     * @param amount withdrawal amount in cents
+     * @return the posting
+     * @throws IllegalArgumentException if the type or holder is missing,
+     *         or the amount is not positive
+     */
+    public static Posting withdrawal(AccountType type, Profile holder,
+                                     long amount) {
+        return new Posting(type, holder, amount, false);
+    }
+
+    /**
+     * Returns the type of the account posted to
+     * @return account type
+     */
+    public AccountType getType() {
+        return type;
+    }
+
+    /**
+     * Returns the holder of the account posted to
+     * @return account holder's profile
+     */
+    public Profile getHolder() {
+        return holder;
+    }
+
+    /**
+     * Returns the amount posted
+     * @return amount in cents
+     */
+    public long getAmount() {
+        return amount;
+    }
+
+    /**
+     * Checks whether the posting is a deposit
+     * @return true if a deposit, false if a withdrawal
+     */
+    public boolean isDeposit() {
+        return isDeposit;
+    }
+}
@@ -5,16 +5,21 @@ package com.banking;
  * @author Jeeva Ramasamy, Parth Patel
  */
 public class Profile implements Comparable<Profile>{
-    private String fname;
-    private String lname;
-    private Date dob;
+    private final String fname;
+    private final String lname;
+    private final Date dob;
+    private final String foldedFname; //first name as compareToIgnoreCase sees it
+    private final String foldedLname; //last name as compareToIgnoreCase sees it
+    private final int hash; //hash of the folded names and date of birth
 
     private static final int LESS_THAN = -1;
     private static final int GREATER_THAN = 1;
+    private static final int HASH_MULTIPLIER = 31;
 
     /**
      * Creates a Profile object with the first name, last name,
-     * and date of birth
+     * and date of birth. The names are case-folded once here so that
+     * comparing and hashing profiles never folds them again.
      * @param fname the first name of the client
      * @param lname the last name of the client
      * @param dob the date of birth of the client
@@ -23,6 +28,58 @@ public class Profile implements Comparable<Profile>{
         this.fname = fname;
         this.lname = lname;
         this.dob = dob;
+        this.foldedFname = fold(fname);
+        this.foldedLname = fold(lname);
+        int hash = this.foldedLname.hashCode();
+        hash = HASH_MULTIPLIER * hash + this.foldedFname.hashCode();
+        this.hash = HASH_MULTIPLIER * hash + dob.hashCode();
+    }
+
+    /**
+     * Folds every character of a name the way compareToIgnoreCase does
+     * @param name the name to be folded
+     * @return the folded name, the same string if already folded
+     */
+    private static String fold(String name) {
+        for (int i = 0; i < name.length(); ++i) {
+            char c = name.charAt(i);
+            if (Character.toLowerCase(Character.toUpperCase(c)) != c) {
+                char[] folded = name.toCharArray();
+                for (int j = i; j < folded.length; ++j) {
+                    folded[j] = Character.toLowerCase(
+                            Character.toUpperCase(folded[j]));
+                }
+                return new String(folded);
+            }
+        }
+        return name;
+    }
+
+    /**
+     * Checks whether the specified profile is equal to this profile and
+     * spells the names in the same case
+     * @param profile the profile to be compared
+     * @return true if equal and spelled the same, false otherwise
+     */
+    boolean isSameSpelling(Profile profile) {
+        return this.equals(profile) && this.fname.equals(profile.fname)
+                && this.lname.equals(profile.lname);
+    }
+
+    /**
+     * Returns the profile's first name
+     * @return first name
+     */
+    public String getFname() {
+        return fname;
+    }
+
+    /**
+     * Returns the profile's last name
+     * @return last name
+     */
+    public String getLname() {
+        return lname;
     }
 
     /**
@@ -35,7 +92,8 @@ public class Profile implements Comparable<Profile>{
 
     /**
      * Compares this profile with the specified profile in the order of
-     * last name, first name, and date of birth
+     * last name, first name, and date of birth, ignoring the case of
+     * the names
      * @param profile the profile to be compared
      * @return 1 if this profile is ordered after the specified profile,
      *         -1 if this profile is ordered before the specified profile,
@@ -43,23 +101,42 @@ public class Profile implements Comparable<Profile>{
      */
     @Override
     public int compareTo(Profile profile) {
-        if (this.lname.compareToIgnoreCase(profile.lname) > 0) {
-            return GREATER_THAN;
+        if (this == profile) {
+            return 0;
         }
-        else if (this.lname.compareToIgnoreCase(profile.lname) < 0) {
-            return LESS_THAN;
+        int result = this.foldedLname.compareTo(profile.foldedLname);
+        if (result == 0) {
+            result = this.foldedFname.compareTo(profile.foldedFname);
         }
-        else {
-            if (this.fname.compareToIgnoreCase(profile.fname) > 0) {
-                return GREATER_THAN;
-            }
-            else if (this.fname.compareToIgnoreCase(profile.fname) < 0) {
-                return LESS_THAN;
-            }
-            else {
-                return this.dob.compareTo(profile.dob);
-            }
+        if (result == 0) {
+            return this.dob.compareTo(profile.dob);
+        }
+        return result > 0 ? GREATER_THAN : LESS_THAN;
+    }
+
+    /**
+     * Checks if this profile is equal to the specified object, ignoring
+     * the case of the names as compareTo does
+     * @param obj specified object
+     * @return true if equal, false otherwise
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof Profile) {
+            Profile profile = (Profile) obj;
+            return this.hash == profile.hash && this.compareTo(profile) == 0;
         }
+        return false;
+    }
+
+    /**
+     * Returns a hash code consistent with equals, computed once over the
+     * case-folded names and the date of birth
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        return this.hash;
     }
 
     /**
@@ -69,6 +146,17 @@ public class Profile implements Comparable<Profile>{
      */
     @Override
     public String toString() {
-        return this.fname + " " + this.lname + " " + this.dob;
+        return appendTo(new StringBuilder()).toString();
+    }
+
+    /**
+     * Writes the profile into the specified builder in the order:
+     * first name, last name, date of birth
+     * @param out builder the profile is written to
+     * @return the specified builder
+     */
+    public StringBuilder appendTo(StringBuilder out) {
+        out.append(this.fname).append(' ').append(this.lname).append(' ');
+        return this.dob.appendTo(out);
     }
-}
\ No newline at end of file
+}
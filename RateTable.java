@@ -0,0 +1,316 @@
+package com.banking;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Represents the interest rates and fees of every account type, held in
+ * arrays indexed by type code so a batch can read them once and apply
+ * them with no virtual calls. Tables are immutable; the table in effect
+ * can be replaced at any time, for example when its configuration file
+ * changes, and the next computation picks it up.
+ * A configuration file is a properties file keyed by account symbol:
+ * C.rate, S.loyalRate, MM.fee, MM.feeWaiver, MM.withdrawalFee,
+ * MM.freeWithdrawals and MM.loyaltyBalance. Rates are in basis points, amounts in cents, and
+ * missing keys keep their default values. A table can also be written in
+ * binary form, so the journal can record the exact rates of a month-end
+ * run.
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public final class RateTable {
+    private final int[] rates; //basis points by type code
+    private final int[] loyalRates; //basis points by type code
+    private final long[] fees; //cents by type code
+    private final long[] feeWaivers; //minimum balance in cents by type code
+    private final long withdrawalFee; //cents, money market only
+    private final int freeWithdrawals; //money market only
+    private final long loyaltyBalance; //cents, money market only
+
+    private static final int TYPES = AccountType.values().length;
+    private static final long NO_FEE = 0;
+    private static final String RATE = ".rate";
+    private static final String LOYAL_RATE = ".loyalRate";
+    private static final String FEE = ".fee";
+    private static final String FEE_WAIVER = ".feeWaiver";
+    private static final String WITHDRAWAL_FEE = "MM.withdrawalFee";
+    private static final String FREE_WITHDRAWALS = "MM.freeWithdrawals";
+    private static final String LOYALTY_BALANCE = "MM.loyaltyBalance";
+
+    public static final String CONFIG_FILE = "rates.properties"; //name in a data directory
+    static final int ENCODED_BYTES = TYPES * (2 * Integer.BYTES
+            + 2 * Long.BYTES) + 2 * Long.BYTES + Integer.BYTES;
+
+    public static final RateTable DEFAULT = new RateTable(
+            new int[] {100, 100, 400, 450},
+            new int[] {100, 100, 425, 475},
+            new long[] {1200, 0, 2500, 2500},
+            new long[] {100000, 0, 50000, 200000},
+            1000, 3, 200000);
+
+    private static volatile RateTable current = DEFAULT; //table in effect
+
+    /**
+     * Creates a table from rates and fees indexed by type code
+     * @param rates annual interest rates in basis points
+     * @param loyalRates annual interest rates of loyal holders
+     * @param fees monthly fees in cents
+     * @param feeWaivers balances in cents at which the fee is waived
+     * @param withdrawalFee money market fee in cents for extra withdrawals
+     * @param freeWithdrawals money market withdrawals allowed without a fee
+     * @param loyaltyBalance money market balance in cents that keeps the
+     *                       holder loyal
+     */
+    private RateTable(int[] rates, int[] loyalRates, long[] fees,
+                      long[] feeWaivers, long withdrawalFee,
+                      int freeWithdrawals, long loyaltyBalance) {
+        this.rates = rates;
+        this.loyalRates = loyalRates;
+        this.fees = fees;
+        this.feeWaivers = feeWaivers;
+        this.withdrawalFee = withdrawalFee;
+        this.freeWithdrawals = freeWithdrawals;
+        this.loyaltyBalance = loyaltyBalance;
+    }
+
+    /**
+     * Returns the table in effect
+     * @return the current table
+     */
+    public static RateTable current() {
+        return current;
+    }
+
+    /**
+     * Puts a table into effect for every later computation
+     * @param table the new table
+     */
+    public static void install(RateTable table) {
+        current = table;
+    }
+
+    /**
+     * Reads a table from a configuration file
+     * @param file the configuration file
+     * @return the table
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if a value is not valid
+     */
+    public static RateTable load(Path file) throws IOException {
+        Properties config = new Properties();
+        try (Reader reader = Files.newBufferedReader(file,
+                StandardCharsets.UTF_8)) {
+            config.load(reader);
+        }
+        return parse(config);
+    }
+
+    /**
+     * Creates a table from configuration properties
+     * @param config the properties
+     * @return the table
+     * @throws IllegalArgumentException if a value is not valid
+     */
+    public static RateTable parse(Properties config) {
+        int[] rates = new int[TYPES];
+        int[] loyalRates = new int[TYPES];
+        long[] fees = new long[TYPES];
+        long[] feeWaivers = new long[TYPES];
+        for (AccountType type : AccountType.values()) {
+            int code = type.getTypeCode();
+            String symbol = type.getSymbol();
+            rates[code] = (int) get(config, symbol + RATE,
+                    DEFAULT.rates[code]);
+            loyalRates[code] = (int) get(config, symbol + LOYAL_RATE,
+                    DEFAULT.loyalRates[code]);
+            fees[code] = get(config, symbol + FEE, DEFAULT.fees[code]);
+            feeWaivers[code] = get(config, symbol + FEE_WAIVER,
+                    DEFAULT.feeWaivers[code]);
+        }
+        return new RateTable(rates, loyalRates, fees, feeWaivers,
+                get(config, WITHDRAWAL_FEE, DEFAULT.withdrawalFee),
+                (int) get(config, FREE_WITHDRAWALS, DEFAULT.freeWithdrawals),
+                get(config, LOYALTY_BALANCE, DEFAULT.loyaltyBalance));
+    }
+
+    /**
+     * Writes the table in binary form
+     * @param out destination buffer with ENCODED_BYTES remaining
+     */
+    void writeTo(ByteBuffer out) {
+        for (int code = 0; code < TYPES; ++code) {
+            out.putInt(rates[code]).putInt(loyalRates[code]);
+            out.putLong(fees[code]).putLong(feeWaivers[code]);
+        }
+        out.putLong(withdrawalFee).putInt(freeWithdrawals);
+        out.putLong(loyaltyBalance);
+    }
+
+    /**
+     * Reads a table written by writeTo
+     * @param in source buffer
+     * @return the table
+     */
+    static RateTable readFrom(ByteBuffer in) {
+        int[] rates = new int[TYPES];
+        int[] loyalRates = new int[TYPES];
+        long[] fees = new long[TYPES];
+        long[] feeWaivers = new long[TYPES];
+        for (int code = 0; code < TYPES; ++code) {
+            rates[code] = in.getInt();
+            loyalRates[code] = in.getInt();
+            fees[code] = in.getLong();
+            feeWaivers[code] = in.getLong();
+        }
+        return new RateTable(rates, loyalRates, fees, feeWaivers,
+                in.getLong(), in.getInt(), in.getLong());
+    }
+
+    /**
+     * Reads a non-negative whole number from the properties
+     * @param config the properties
+     * @param key key of the value
+     * @param defaultValue value used if the key is missing
+     * @return the value
+     * @throws IllegalArgumentException if the value is not valid
+     */
+    private static long get(Properties config, String key,
+                            long defaultValue) {
+        String value = config.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            long number = Long.parseLong(value.trim());
+            if (number >= 0 && number <= Integer.MAX_VALUE) {
+                return number;
+            }
+        }
+        catch (NumberFormatException e) {
+            //reported below
+        }
+        throw new IllegalArgumentException("Invalid value for " + key
+                + ": " + value);
+    }
+
+    /**
+     * Checks if this table holds the same rates and fees as the specified
+     * object
+     * @param obj specified object
+     * @return true if equal, false otherwise
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof RateTable) {
+            RateTable table = (RateTable) obj;
+            return Arrays.equals(rates, table.rates)
+                    && Arrays.equals(loyalRates, table.loyalRates)
+                    && Arrays.equals(fees, table.fees)
+                    && Arrays.equals(feeWaivers, table.feeWaivers)
+                    && withdrawalFee == table.withdrawalFee
+                    && freeWithdrawals == table.freeWithdrawals
+                    && loyaltyBalance == table.loyaltyBalance;
+        }
+        return false;
+    }
+
+    /**
+     * Returns a hash code consistent with equals
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(rates) ^ Arrays.hashCode(fees);
+    }
+
+    /**
+     * Returns the annual interest rate of an account type
+     * @param type account type
+     * @param isLoyal whether the account holder is loyal
+     * @return annual interest rate in basis points
+     */
+    public int getRate(AccountType type, boolean isLoyal) {
+        if (isLoyal) {
+            return loyalRates[type.getTypeCode()];
+        }
+        return rates[type.getTypeCode()];
+    }
+
+    /**
+     * Returns the monthly fee of an account type
+     * @param type account type
+     * @return monthly fee in cents
+     */
+    public long getFee(AccountType type) {
+        return fees[type.getTypeCode()];
+    }
+
+    /**
+     * Returns the balance at which the monthly fee is waived
+     * @param type account type
+     * @return minimum balance in cents
+     */
+    public long getFeeWaiver(AccountType type) {
+        return feeWaivers[type.getTypeCode()];
+    }
+
+    /**
+     * Returns the money market fee for withdrawals past the free ones
+     * @return withdrawal fee in cents
+     */
+    public long getWithdrawalFee() {
+        return withdrawalFee;
+    }
+
+    /**
+     * Returns the number of money market withdrawals allowed each month
+     * without a fee
+     * @return number of free withdrawals
+     */
+    public int getFreeWithdrawals() {
+        return freeWithdrawals;
+    }
+
+    /**
+     * Returns the money market balance that keeps the holder loyal
+     * @return minimum balance for loyalty in cents
+     */
+    public long getLoyaltyBalance() {
+        return loyaltyBalance;
+    }
+
+    /**
+     * Returns one month of interest on a balance
+     * @param type account type
+     * @param isLoyal whether the account holder is loyal
+     * @param balance balance in cents
+     * @return monthly interest in cents
+     */
+    public long monthlyInterest(AccountType type, boolean isLoyal,
+                                long balance) {
+        return Money.monthlyInterest(balance, getRate(type, isLoyal));
+    }
+
+    /**
+     * Returns the monthly fee on a balance
+     * @param type account type
+     * @param balance balance in cents
+     * @param withdrawals number of withdrawals this month
+     * @return monthly fee in cents
+     */
+    public long monthlyFee(AccountType type, long balance, int withdrawals) {
+        long fee = NO_FEE;
+        if (balance < feeWaivers[type.getTypeCode()]) {
+            fee = fees[type.getTypeCode()];
+        }
+        if (withdrawals > freeWithdrawals) {
+            fee += withdrawalFee;
+        }
+        return fee;
+    }
+}
@@ -0,0 +1,104 @@
+package banking;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.util.Properties;
+
+/**
+ * Tests the RateTable class
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class RateTableTest {
+
+    /**
+     * Test case #1
+     * Tests if the default table holds the rates and fees of the
+     * original accounts
+     */
+    @org.junit.Test
+    public void test_Defaults() {
+        RateTable rates = RateTable.DEFAULT;
+        assertEquals(100, rates.getRate(AccountType.CHECKING, false));
+        assertEquals(400, rates.getRate(AccountType.SAVINGS, false));
+        assertEquals(425, rates.getRate(AccountType.SAVINGS, true));
+        assertEquals(475, rates.getRate(AccountType.MONEY_MARKET, true));
+        assertEquals(1200, rates.getFee(AccountType.CHECKING));
+        assertEquals(0, rates.getFee(AccountType.COLLEGE_CHECKING));
+        assertEquals(200000, rates.getFeeWaiver(AccountType.MONEY_MARKET));
+        assertEquals(1000, rates.getWithdrawalFee());
+        assertEquals(3, rates.getFreeWithdrawals());
+        assertEquals(200000, rates.getLoyaltyBalance());
+        assertEquals(RateTable.DEFAULT, RateTable.parse(new Properties()));
+    }
+
+    /**
+     * Test case #2
+     * Tests if configured values replace the defaults and missing keys
+     * keep them
+     */
+    @org.junit.Test
+    public void test_ParseOverrides() {
+        Properties config = new Properties();
+        config.setProperty("S.rate", "500");
+        config.setProperty("MM.fee", " 3000 ");
+        config.setProperty("MM.freeWithdrawals", "6");
+        config.setProperty("MM.loyaltyBalance", "500000");
+        RateTable rates = RateTable.parse(config);
+        assertEquals(500000, rates.getLoyaltyBalance());
+        assertEquals(500, rates.getRate(AccountType.SAVINGS, false));
+        assertEquals(425, rates.getRate(AccountType.SAVINGS, true));
+        assertEquals(3000, rates.getFee(AccountType.MONEY_MARKET));
+        assertEquals(2500, rates.getFee(AccountType.SAVINGS));
+        assertEquals(6, rates.getFreeWithdrawals());
+        assertEquals(1000, rates.getWithdrawalFee());
+        assertEquals(1000, rates.monthlyFee(AccountType.MONEY_MARKET,
+                200000, 7));
+        assertEquals(4000, rates.monthlyFee(AccountType.MONEY_MARKET,
+                199999, 7));
+    }
+
+    /**
+     * Test case #3
+     * Tests if a value that is not a non-negative whole number is refused
+     */
+    @org.junit.Test
+    public void test_InvalidValues() {
+        String[] invalid = {"-1", "4.5", "", "ten", "2147483648"};
+        for (String value : invalid) {
+            Properties config = new Properties();
+            config.setProperty("C.fee", value);
+            try {
+                RateTable.parse(config);
+                fail("Accepted C.fee=" + value);
+            }
+            catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage().contains("C.fee"));
+            }
+        }
+    }
+
+    /**
+     * Test case #4
+     * Tests if a table written in binary form is read back unchanged
+     */
+    @org.junit.Test
+    public void test_BinaryRoundTrip() {
+        Properties config = new Properties();
+        config.setProperty("CC.rate", "150");
+        config.setProperty("C.feeWaiver", "250000");
+        config.setProperty("MM.withdrawalFee", "1500");
+        config.setProperty("MM.loyaltyBalance", "250000");
+        RateTable rates = RateTable.parse(config);
+        ByteBuffer buffer = ByteBuffer.allocate(RateTable.ENCODED_BYTES);
+        rates.writeTo(buffer);
+        assertFalse(buffer.hasRemaining());
+        buffer.flip();
+        RateTable read = RateTable.readFrom(buffer);
+        assertEquals(150, read.getRate(AccountType.COLLEGE_CHECKING, false));
+        assertEquals(250000, read.getFeeWaiver(AccountType.CHECKING));
+        assertEquals(1500, read.getWithdrawalFee());
+        assertEquals(250000, read.getLoyaltyBalance());
+        assertEquals(rates, read);
+    }
+}
@@ -0,0 +1,101 @@
+package com.banking;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the rate table in effect in step with its configuration file.
+ * The file is loaded when the watcher starts and again every time it is
+ * created or changed; until it exists the table in effect is kept, and a
+ * change that cannot be read or is not valid is ignored. Every reload and
+ * every ignored change is reported to a listener.
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class RateTableWatcher implements Closeable {
+    private final Path file;
+    private final Consumer<String> listener; //told of reloads and failures
+    private final WatchService watcher;
+
+    /**
+     * Loads the configuration file if it exists, puts its table into
+     * effect, and starts watching the file for changes
+     * @param file the configuration file, in an existing directory
+     * @param listener told of every reload and every ignored change
+     * @throws IOException if the directory of the file cannot be watched
+     */
+    public RateTableWatcher(Path file, Consumer<String> listener)
+            throws IOException {
+        this.file = file.toAbsolutePath();
+        this.listener = listener;
+        if (Files.exists(this.file)) {
+            reload();
+        }
+        watcher = this.file.getFileSystem().newWatchService();
+        this.file.getParent().register(watcher,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        Thread thread = new Thread(this::run, "rate-table-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Loads the configuration file again and puts its table into effect
+     * @return true if reloaded, false if the file could not be used
+     */
+    public boolean reload() {
+        try {
+            RateTable.install(RateTable.load(file));
+            listener.accept("Rates loaded from " + file + ".");
+            return true;
+        }
+        catch (IOException | IllegalArgumentException e) {
+            listener.accept("Cannot load rates from " + file
+                    + ", keeping the rates in effect: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Stops watching the configuration file, keeping the table in effect
+     * @throws IOException if the watch service cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        watcher.close();
+    }
+
+    /**
+     * Reloads the table whenever the configuration file changes
+     */
+    private void run() {
+        try {
+            while (true) {
+                WatchKey key = watcher.take();
+                boolean isChanged = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (file.getFileName().equals(event.context())) {
+                        isChanged = true;
+                    }
+                }
+                if (isChanged) {
+                    reload();
+                }
+                if (!key.reset()) {
+                    return;
+                }
+            }
+        }
+        catch (InterruptedException | ClosedWatchServiceException e) {
+            //closed
+        }
+    }
+}
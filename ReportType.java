@@ -0,0 +1,11 @@
+package com.banking;
+
+/**
+ * Represents the reports that can be printed from the account database
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public enum ReportType {
+    ACCOUNTS,
+    FEES_AND_INTERESTS,
+    UPDATED_BALANCES
+}
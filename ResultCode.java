@@ -0,0 +1,74 @@
+package com.banking;
+
+/**
+ * Represents the outcome of a transaction. Each outcome has a fixed code
+ * sent to binary clients, so codes never change when outcomes are added
+ * or reordered; a new outcome takes the next unused code.
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public enum ResultCode {
+    OK (0),
+    MISSING_DATA (1),
+    INVALID_DATE (2),
+    FUTURE_DATE (3),
+    UNDER_AGE (4),
+    OVER_COLLEGE_AGE (5),
+    NON_POSITIVE_AMOUNT (6),
+    BELOW_MINIMUM_DEPOSIT (7),
+    INVALID_CAMPUS (8),
+    ALREADY_EXISTS (9),
+    NOT_FOUND (10),
+    INSUFFICIENT_FUNDS (11),
+    NAME_TOO_LONG (12);
+
+    private final int code;
+
+    private static final int MAX_CODE = 0x7F;
+    private static final ResultCode[] CODES = new ResultCode[MAX_CODE + 1]; //indexed by code
+
+    static {
+        for (ResultCode result : values()) {
+            if (CODES[result.code] != null) {
+                throw new AssertionError("Duplicate result code "
+                        + result.code);
+            }
+            CODES[result.code] = result;
+        }
+    }
+
+    /**
+     * Creates an outcome with its code
+     * @param code code sent to binary clients, from 0 to 127
+     */
+    ResultCode(int code) {
+        this.code = code;
+    }
+
+    /**
+     * Returns the code sent to binary clients
+     * @return result code
+     */
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * Returns the outcome that corresponds to the code
+     * @param code result code
+     * @return outcome if it exists, null otherwise
+     */
+    public static ResultCode fromCode(int code) {
+        if (code < 0 || code > MAX_CODE) {
+            return null;
+        }
+        return CODES[code];
+    }
+
+    /**
+     * Checks whether the transaction succeeded
+     * @return true if the transaction succeeded, false otherwise
+     */
+    public boolean isOk() {
+        return this == OK;
+    }
+}
@@ -7,12 +7,6 @@ package com.banking;
  */
 public class Savings extends Account {
     protected boolean isLoyal; //loyal customer status
-    private static final double INTEREST_RATE = 0.04;
-    private static final double MONTHLY_FEE = 25;
-    private static final double NO_FEE = 0;
-    private static final double MIN_BAL_FOR_BENEFITS = 500;
-    private static final double LOYAL_EXTRA_RATE = 0.0025;
-    private static final int MONTHS_IN_YEAR = 12;
     private static final int LESS_THAN = -1;
     private static final int GREATER_THAN = 1;
     private static final String ACCT_TYPE = "Savings";
@@ -22,10 +16,10 @@ public class Savings extends Account {
      * Creates a Savings account object with the specified
      * holder, balance, and loyalty
      * @param holder account holder's profile
-     * @param balance account balance
+     * @param balance account balance in cents
      * @param isLoyal whether the account holder is loyal
      */
-    public Savings(Profile holder, double balance, boolean isLoyal) {
+    public Savings(Profile holder, long balance, boolean isLoyal) {
         super(holder, balance);
         this.isLoyal = isLoyal;
     }
@@ -34,9 +28,9 @@ public class Savings extends Account {
      * Creates a Savings account object with the specified
      * holder and balance
      * @param holder account holder's profile
-     * @param balance account balance
+     * @param balance account balance in cents
      */
-    public Savings(Profile holder, double balance) {
+    public Savings(Profile holder, long balance) {
         super(holder, balance);
     }
 
@@ -48,29 +42,32 @@ public class Savings extends Account {
         super(holder);
     }
 
+    /**
+     * Returns whether the account holder is loyal
+     * @return true if loyal, false otherwise
+     */
+    public boolean isLoyal() {
+        return isLoyal;
+    }
+
     /**
      * Returns the monthly interest for the savings account
-     * @return monthly interest
+     * @param rates the rate table
+     * @return monthly interest in cents
      */
     @Override
-    public double monthlyInterest() {
-        double interestRate = INTEREST_RATE;
-        if (this.isLoyal) {
-            interestRate += LOYAL_EXTRA_RATE;
-        }
-        return interestRate / MONTHS_IN_YEAR;
+    public long monthlyInterest(RateTable rates) {
+        return rates.monthlyInterest(getType(), this.isLoyal, this.balance);
     }
 
     /**
      * Returns the monthly fee for the savings account
-     * @return monthly fee
+     * @param rates the rate table
+     * @return monthly fee in cents
      */
     @Override
-    public double monthlyFee() {
-        if (this.balance >= MIN_BAL_FOR_BENEFITS) {
-            return NO_FEE;
-        }
-        return MONTHLY_FEE;
+    public long monthlyFee(RateTable rates) {
+        return rates.monthlyFee(getType(), this.balance, 0);
     }
 
     /**
@@ -91,6 +88,15 @@ public class Savings extends Account {
         return ACCT_SYMBOL;
     }
 
+    /**
+     * Returns the predefined account type
+     * @return predefined account type
+     */
+    @Override
+    public AccountType getType() {
+        return AccountType.SAVINGS;
+    }
+
     /**
      * Compares this Account object with the specified object for order
      * @param acct the object to be compared.
@@ -128,14 +134,18 @@ public class Savings extends Account {
     }
 
     /**
-     * Returns a string representation of the Savings account
+     * Writes the Savings account into the specified builder
      * in the format: banking.Savings::Account(::is loyal)
-     * @return string version of savings account
+     * @param out builder the savings account is written to
+     * @return the specified builder
      */
     @Override
-    public String toString() {
-        String output = "banking." + ACCT_TYPE + "::" + super.toString();
-        output += this.isLoyal ? "::is loyal" : "";
-        return output;
+    public StringBuilder appendTo(StringBuilder out) {
+        out.append("banking.").append(ACCT_TYPE).append("::");
+        super.appendTo(out);
+        if (this.isLoyal) {
+            out.append("::is loyal");
+        }
+        return out;
     }
 }
@@ -0,0 +1,115 @@
+package com.banking;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Tells today's date as a packed int, reading the calendar only once a
+ * day. The date is cached until the next midnight of the clock's time
+ * zone, so asking for it costs one read of the time in milliseconds.
+ * A clock over a fixed or custom time source can be installed as the
+ * default to make age checks deterministic in tests and replays.
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class TodayClock {
+    private final Clock clock;
+    private volatile Day cached; //today and the time span it covers
+
+    private static final long NOON_SECONDS = 12 * 60 * 60;
+
+    private static volatile TodayClock current =
+            new TodayClock(Clock.systemDefaultZone());
+
+    /**
+     * Creates a clock telling the date of the specified time source
+     * @param clock source of the current time and time zone
+     */
+    public TodayClock(Clock clock) {
+        this.clock = clock;
+        this.cached = dayOf(clock.millis());
+    }
+
+    /**
+     * Creates a clock that always tells the specified date
+     * @param year the year in the date of format yyyy
+     * @param month the month in the date of format mm
+     * @param day the day in the date of format dd
+     * @return the fixed clock
+     */
+    public static TodayClock fixed(int year, int month, int day) {
+        ZoneId zone = ZoneId.systemDefault();
+        Instant noon = LocalDate.of(year, month, day).atStartOfDay(zone)
+                .toInstant().plusSeconds(NOON_SECONDS);
+        return new TodayClock(Clock.fixed(noon, zone));
+    }
+
+    /**
+     * Returns the clock used by dates to compute ages
+     * @return the default clock
+     */
+    public static TodayClock getDefault() {
+        return current;
+    }
+
+    /**
+     * Replaces the clock used by dates to compute ages
+     * @param clock the new default clock
+     */
+    public static void setDefault(TodayClock clock) {
+        current = clock;
+    }
+
+    /**
+     * Returns today's date packed as year, month and day bits,
+     * see Date.pack
+     * @return today's packed date
+     */
+    public int today() {
+        long now = clock.millis();
+        Day day = cached;
+        if (now < day.start || now >= day.end) {
+            day = dayOf(now);
+            cached = day;
+        }
+        return day.packed;
+    }
+
+    /**
+     * Looks up the day containing an instant on the calendar
+     * @param millis the instant in milliseconds since the epoch
+     * @return the day
+     */
+    private Day dayOf(long millis) {
+        ZoneId zone = clock.getZone();
+        LocalDate date = Instant.ofEpochMilli(millis).atZone(zone)
+                .toLocalDate();
+        long start = date.atStartOfDay(zone).toInstant().toEpochMilli();
+        long end = date.plusDays(1).atStartOfDay(zone).toInstant()
+                .toEpochMilli();
+        return new Day(Date.pack(date.getYear(), date.getMonthValue(),
+                date.getDayOfMonth()), start, end);
+    }
+
+    /**
+     * Represents one calendar day and the time span it covers
+     */
+    private static class Day {
+        private final int packed; //packed date
+        private final long start; //first millisecond of the day
+        private final long end; //first millisecond of the next day
+
+        /**
+         * Creates a day with its packed date and time span
+         * @param packed packed date
+         * @param start first millisecond of the day
+         * @param end first millisecond of the next day
+         */
+        private Day(int packed, long start, long end) {
+            this.packed = packed;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.banking;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Runs transactions against an account database without any user
+ * interface. Every rule an account must satisfy is checked here, and
+ * each transaction returns a result code instead of a message, so the
+ * engine can be driven from the GUI, a command line, a server or a
+ * benchmark alike. When a journal is attached, every change is checked
+ * against the database, then logged and committed, and only then applied,
+ * so a change the caller is told about is already in the journal.
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class TransactionEngine {
+    private final AccountDatabase acctDb;
+    private final TransactionJournal journal; //null if not journaled
+
+    private static final long EMPTY = 0;
+
+    /**
+     * Creates an engine running transactions against the database
+     * @param acctDb the account database
+     */
+    public TransactionEngine(AccountDatabase acctDb) {
+        this(acctDb, null);
+    }
+
+    /**
+     * Creates an engine running transactions against the database and
+     * logging every change to the journal
+     * @param acctDb the account database
+     * @param journal journal the changes are logged to
+     */
+    public TransactionEngine(AccountDatabase acctDb,
+                             TransactionJournal journal) {
+        this.acctDb = acctDb;
+        this.journal = journal;
+    }
+
+    /**
+     * Returns the account database transactions are run against
+     * @return the account database
+     */
+    public AccountDatabase getDatabase() {
+        return acctDb;
+    }
+
+    /**
+     * Returns the journal the changes are logged to
+     * @return the journal, or null if not journaled
+     */
+    public TransactionJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Runs a transaction other than printing
+     * @param command the transaction
+     * @return outcome of the transaction
+     * @throws IllegalArgumentException if the command prints a report
+     */
+    public ResultCode execute(Command command) {
+        switch (command.getKind()) {
+            case OPEN:
+                return open(command);
+            case CLOSE:
+                return close(command.getType(), command.getHolder());
+            case DEPOSIT:
+                return deposit(command.getType(), command.getHolder(),
+                        command.getAmount());
+            case WITHDRAW:
+                return withdraw(command.getType(), command.getHolder(),
+                        command.getAmount());
+            default:
+                throw new IllegalArgumentException(
+                        "Reports are printed with print()");
+        }
+    }
+
+    /**
+     * Opens an account if its campus code, holder and initial deposit
+     * are valid
+     * @param command the open command
+     * @return outcome of opening the account
+     */
+    private ResultCode open(Command command) {
+        ResultCode result = AccountValidator.checkCampus(command.getType(),
+                command.getCampusCode());
+        if (!result.isOk()) {
+            return result;
+        }
+        return open(command.getType(), command.getHolder(),
+                command.getAmount(), command.getCampus(), command.isLoyal());
+    }
+
+    /**
+     * Opens an account if the holder and initial deposit are valid
+     * @param type account type
+     * @param holder account holder's profile
+     * @param deposit initial deposit in cents
+     * @param campus campus of a college checking account holder
+     * @param isLoyal whether a savings account holder is loyal
+     * @return outcome of opening the account
+     */
+    public ResultCode open(AccountType type, Profile holder, long deposit,
+                           Campus campus, boolean isLoyal) {
+        if (type == null || holder == null
+                || (type == AccountType.COLLEGE_CHECKING && campus == null)) {
+            return ResultCode.MISSING_DATA;
+        }
+        ResultCode result = AccountValidator.checkOpen(type, holder, deposit);
+        if (!result.isOk()) {
+            return result;
+        }
+        Account acct = makeAccount(type, holder, deposit, campus, isLoyal);
+        if (journal != null) {
+            if (acctDb.contains(acct, true)) {
+                return ResultCode.ALREADY_EXISTS;
+            }
+            journal.logOpen(acct);
+        }
+        if (!acctDb.open(acct)) {
+            return ResultCode.ALREADY_EXISTS;
+        }
+        return ResultCode.OK;
+    }
+
+    /**
+     * Closes an account
+     * @param type account type
+     * @param holder account holder's profile
+     * @return outcome of closing the account
+     */
+    public ResultCode close(AccountType type, Profile holder) {
+        if (type == null || holder == null) {
+            return ResultCode.MISSING_DATA;
+        }
+        ResultCode result = AccountValidator.checkNames(holder);
+        if (!result.isOk()) {
+            return result;
+        }
+        Account acct = makeAccount(type, holder, EMPTY, null, false);
+        if (journal != null) {
+            if (!acctDb.contains(acct)) {
+                return ResultCode.NOT_FOUND;
+            }
+            journal.logClose(type, holder);
+        }
+        if (!acctDb.close(acct)) {
+            return ResultCode.NOT_FOUND;
+        }
+        return ResultCode.OK;
+    }
+
+    /**
+     * Deposits the amount into an account
+     * @param type account type
+     * @param holder account holder's profile
+     * @param amount deposit amount in cents
+     * @return outcome of the deposit
+     */
+    public ResultCode deposit(AccountType type, Profile holder, long amount) {
+        if (amount <= EMPTY) {
+            return ResultCode.NON_POSITIVE_AMOUNT;
+        }
+        if (type == null || holder == null) {
+            return ResultCode.MISSING_DATA;
+        }
+        ResultCode result = AccountValidator.checkNames(holder);
+        if (!result.isOk()) {
+            return result;
+        }
+        if (journal != null) {
+            result = acctDb.checkDeposit(type, holder);
+            if (!result.isOk()) {
+                return result;
+            }
+            journal.logDeposit(type, holder, amount);
+        }
+        return acctDb.deposit(type, holder, amount);
+    }
+
+    /**
+     * Withdraws the amount from an account
+     * @param type account type
+     * @param holder account holder's profile
+     * @param amount withdrawal amount in cents
+     * @return outcome of the withdrawal
+     */
+    public ResultCode withdraw(AccountType type, Profile holder, long amount) {
+        if (amount <= EMPTY) {
+            return ResultCode.NON_POSITIVE_AMOUNT;
+        }
+        if (type == null || holder == null) {
+            return ResultCode.MISSING_DATA;
+        }
+        ResultCode result = AccountValidator.checkNames(holder);
+        if (!result.isOk()) {
+            return result;
+        }
+        if (journal != null) {
+            result = acctDb.checkWithdraw(type, holder, amount);
+            if (!result.isOk()) {
+                return result;
+            }
+            journal.logWithdraw(type, holder, amount);
+        }
+        return acctDb.withdraw(type, holder, amount);
+    }
+
+    /**
+     * Applies a batch of deposits and withdrawals, such as a nightly
+     * posting file, in one pass over the database. The postings are
+     * logged with a single commit before any of them is applied.
+     * @param batch postings to be applied
+     * @return set of positions in the batch that were applied; a posting
+     *         is not applied if its account is not in the database or a
+     *         withdrawal exceeds the balance
+     */
+    public BitSet post(List<Posting> batch) {
+        if (journal != null && !batch.isEmpty()) {
+            journal.logPostings(loggable(batch));
+        }
+        return acctDb.applyBatch(batch);
+    }
+
+    /**
+     * Leaves out the postings whose names are too long to log. No account
+     * with such a name can be opened, so they are refused when applied.
+     * @param batch postings to be applied
+     * @return the batch itself if every posting can be logged, a copy
+     *         without the others otherwise
+     */
+    private static List<Posting> loggable(List<Posting> batch) {
+        List<Posting> loggable = null; //copied only once a posting is left out
+        for (int i = 0; i < batch.size(); ++i) {
+            Posting posting = batch.get(i);
+            if (!AccountValidator.checkNames(posting.getHolder()).isOk()) {
+                if (loggable == null) {
+                    loggable = new ArrayList<>(batch.subList(0, i));
+                }
+            }
+            else if (loggable != null) {
+                loggable.add(posting);
+            }
+        }
+        return loggable == null ? batch : loggable;
+    }
+
+    /**
+     * Prints a report of the account database
+     * @param report report to be printed
+     * @param out destination of the report
+     * @return outcome of printing the report
+     * @throws IOException if the destination cannot be written to
+     */
+    public ResultCode print(ReportType report, Appendable out)
+            throws IOException {
+        if (report == null) {
+            return ResultCode.MISSING_DATA;
+        }
+        switch (report) {
+            case ACCOUNTS:
+                acctDb.writeSorted(out);
+                break;
+            case FEES_AND_INTERESTS:
+                acctDb.writeFeesAndInterests(out);
+                break;
+            default:
+                RateTable rates = RateTable.current();
+                if (journal != null && acctDb.size() > EMPTY) {
+                    journal.logMonthly(rates);
+                }
+                acctDb.writeUpdatedBalances(out, rates);
+                break;
+        }
+        return ResultCode.OK;
+    }
+
+    /**
+     * Takes a snapshot of the account database for a report that is
+     * shown one row at a time. For the updated balances report, the
+     * interests and fees are logged and applied first.
+     * @param report report to be taken
+     * @return the report
+     */
+    public AccountReport report(ReportType report) {
+        if (report == ReportType.UPDATED_BALANCES && acctDb.size() > EMPTY) {
+            RateTable rates = RateTable.current();
+            if (journal != null) {
+                journal.logMonthly(rates);
+            }
+            acctDb.applyMonthlyInterestAndFees(rates);
+        }
+        return AccountReport.of(report, acctDb);
+    }
+
+    /**
+     * Creates an account using the specified attributes
+     * @param type account type
+     * @param holder account holder's profile
+     * @param balance balance in cents
+     * @param campus campus of a college checking account holder
+     * @param isLoyal whether a savings account holder is loyal
+     * @return account
+     */
+    static Account makeAccount(AccountType type, Profile holder, long balance,
+                               Campus campus, boolean isLoyal) {
+        switch (type) {
+            case CHECKING:
+                return new Checking(holder, balance);
+            case COLLEGE_CHECKING:
+                return new CollegeChecking(holder, balance, campus);
+            case SAVINGS:
+                return new Savings(holder, balance, isLoyal);
+            default:
+                return new MoneyMarket(holder, balance);
+        }
+    }
+}
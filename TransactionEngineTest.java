@@ -0,0 +1,124 @@
+package banking;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the TransactionEngine class
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class TransactionEngineTest {
+
+    /**
+     * Test case #1
+     * Tests if a withdrawal larger than the balance is refused
+     * and leaves the balance unchanged
+     */
+    @org.junit.Test
+    public void test_InsufficientFunds() {
+        TransactionEngine engine = new TransactionEngine(new AccountDatabase());
+        Profile profile = new Profile("Bill", "Gates", new Date(1976, 1, 1));
+        assertEquals(ResultCode.OK, engine.open(AccountType.CHECKING,
+                profile, 10000, null, false));
+        assertEquals(ResultCode.INSUFFICIENT_FUNDS,
+                engine.withdraw(AccountType.CHECKING, profile, 10001));
+        assertEquals(ResultCode.OK,
+                engine.withdraw(AccountType.CHECKING, profile, 10000));
+    }
+
+    /**
+     * Test case #2
+     * Tests if transactions on an account not in the database
+     * are reported as not found
+     */
+    @org.junit.Test
+    public void test_NotFound() {
+        TransactionEngine engine = new TransactionEngine(new AccountDatabase());
+        Profile profile = new Profile("Bill", "Gates", new Date(1976, 1, 1));
+        assertEquals(ResultCode.NOT_FOUND,
+                engine.deposit(AccountType.SAVINGS, profile, 100));
+        assertEquals(ResultCode.NOT_FOUND,
+                engine.close(AccountType.SAVINGS, profile));
+    }
+
+    /**
+     * Test case #3
+     * Tests if a Money Market account below the minimum deposit
+     * is not opened
+     */
+    @org.junit.Test
+    public void test_MoneyMarketMinimum() {
+        TransactionEngine engine = new TransactionEngine(new AccountDatabase());
+        Profile profile = new Profile("Bill", "Gates", new Date(1976, 1, 1));
+        assertEquals(ResultCode.BELOW_MINIMUM_DEPOSIT, engine.open(
+                AccountType.MONEY_MARKET, profile, 199999, null, false));
+    }
+
+    /**
+     * Test case #4
+     * Tests if a batch applies the postings on each account in order and
+     * reports the ones that were refused
+     */
+    @org.junit.Test
+    public void test_PostingBatch() {
+        TransactionEngine engine = new TransactionEngine(new AccountDatabase());
+        Profile profile = new Profile("Bill", "Gates", new Date(1976, 1, 1));
+        engine.open(AccountType.CHECKING, profile, 10000, null, false);
+        java.util.BitSet applied = engine.post(java.util.Arrays.asList(
+                Posting.withdrawal(AccountType.CHECKING, profile, 15000),
+                Posting.deposit(AccountType.SAVINGS, profile, 100),
+                Posting.deposit(AccountType.CHECKING, profile, 5000),
+                Posting.withdrawal(AccountType.CHECKING, profile, 15000)));
+        assertEquals("{2, 3}", applied.toString());
+        assertEquals(0, engine.getDatabase().getRelationshipBalance(profile));
+    }
+
+    /**
+     * Test case #5
+     * Tests if a balance too large for a double to hold exactly is kept
+     * to the cent
+     */
+    @org.junit.Test
+    public void test_LargeBalanceExact() {
+        TransactionEngine engine = new TransactionEngine(new AccountDatabase());
+        Profile profile = new Profile("Bill", "Gates", new Date(1976, 1, 1));
+        long balance = (1L << 53) + 1;
+        assertEquals(ResultCode.OK, engine.open(AccountType.SAVINGS, profile,
+                balance, null, false));
+        assertEquals(ResultCode.OK, engine.deposit(AccountType.SAVINGS,
+                profile, 2));
+        assertEquals(balance + 2,
+                engine.getDatabase().getRelationshipBalance(profile));
+    }
+
+    /**
+     * Test case #6
+     * Tests if an unknown campus code is reported as an invalid campus,
+     * whether it was typed or sent in binary, and a missing one as
+     * missing data
+     */
+    @org.junit.Test
+    public void test_InvalidCampus() {
+        TransactionEngine engine = new TransactionEngine(new AccountDatabase());
+        Profile profile = new Profile("Jane", "Doe", new Date(2006, 1, 1));
+        Command typed = Command.parse("O CC Jane Doe 1/1/2006 500 3");
+        assertEquals(ResultCode.INVALID_CAMPUS, engine.execute(typed));
+        assertEquals("Invalid campus code.\n",
+                typed.message(ResultCode.INVALID_CAMPUS));
+        assertEquals(ResultCode.INVALID_CAMPUS, engine.execute(Command.open(
+                AccountType.COLLEGE_CHECKING, profile, 50000, 0x7F, false)));
+        assertEquals(ResultCode.MISSING_DATA, engine.execute(
+                Command.parse("O CC Jane Doe 1/1/2006 500")));
+        assertEquals(ResultCode.OK, engine.execute(
+                Command.parse("O S Jane Doe 1/1/2006 500 3")));
+        assertEquals(ResultCode.OK, engine.execute(
+                Command.parse("O CC Jane Doe 1/1/2006 500 2")));
+        Account[] accounts = engine.getDatabase().getAccounts(profile);
+        assertEquals(2, accounts.length);
+        for (Account acct : accounts) {
+            if (acct instanceof CollegeChecking) {
+                assertEquals(Campus.CAMDEN,
+                        ((CollegeChecking) acct).getCampus());
+            }
+        }
+    }
+}
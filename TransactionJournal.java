@@ -0,0 +1,714 @@
+package com.banking;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Represents an append-only binary journal of the transactions applied to
+ * an account database. Each record is framed as length, CRC-32 and body,
+ * so a record torn by a crash is detected and dropped on replay.
+ * A transaction is logged before it is applied. Replay runs each record
+ * against the state it was logged in, so a logged transaction the
+ * database refused is refused again and changes nothing.
+ * Records are written through a FileChannel and forced to disk according
+ * to the durability mode; in batched mode one force covers every record
+ * appended while the previous force was running (group commit).
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class TransactionJournal implements Closeable {
+    private final FileChannel channel;
+    private final Durability durability;
+    private final ReentrantLock lock = new ReentrantLock(); //guards the fields below
+    private final Condition hasPending = lock.newCondition();
+    private final Condition isDurable = lock.newCondition();
+    private final ReentrantLock flushLock = new ReentrantLock(); //one flush at a time
+    private ByteBuffer pending; //records appended but not written
+    private ByteBuffer writing; //records being written by a flush
+    private long appendedPosition; //log position after the last appended record
+    private long durablePosition; //log position up to which records are on disk
+    private boolean isClosed;
+    private IOException failure; //first write failure, fails every later call
+    private Thread flusher; //null in per-operation mode
+    private long readPosition; //next file position read during replay
+
+    private static final byte OPEN = 1;
+    private static final byte CLOSE = 2;
+    private static final byte DEPOSIT = 3;
+    private static final byte WITHDRAW = 4;
+    private static final byte MONTHLY = 5;
+    private static final byte NO_CAMPUS = -1;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 0;
+    private static final long NO_AMOUNT = 0;
+
+    private static final int HEADER_BYTES = 8; //length and checksum
+    private static final int FIXED_BODY_BYTES = 32; //everything except names
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+    private static final int INITIAL_BUFFER_BYTES = 1 << 16;
+    private static final int READ_BUFFER_BYTES = 1 << 16;
+    private static final long ASYNC_FLUSH_MILLIS = 10;
+
+    /**
+     * Represents how soon a logged transaction is forced to disk
+     */
+    public enum Durability {
+        PER_OPERATION, //forced before each log call returns
+        BATCHED, //log call waits for a group commit shared with others
+        ASYNC //forced in the background within a few milliseconds
+    }
+
+    /**
+     * Creates a journal appending to an open channel
+     * @param channel channel of the journal file
+     * @param durability how soon logged transactions are forced to disk
+     */
+    private TransactionJournal(FileChannel channel, Durability durability) {
+        this.channel = channel;
+        this.durability = durability;
+        pending = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+        writing = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+    }
+
+    /**
+     * Opens a journal file, creating it if needed. The records after the
+     * specified position are replayed into the database, a record torn by
+     * a crash is cut off, and new records are appended after the last
+     * complete one.
+     * @param file the journal file
+     * @param durability how soon logged transactions are forced to disk
+     * @param acctDb database the journal is replayed into
+     * @param fromPosition log position already reflected in the database,
+     *                     0 to replay the whole journal
+     * @return journal ready to log transactions
+     * @throws IOException if the journal cannot be read or written
+     */
+    public static TransactionJournal open(Path file, Durability durability,
+                                          AccountDatabase acctDb,
+                                          long fromPosition)
+            throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        TransactionJournal journal = new TransactionJournal(channel, durability);
+        try {
+            journal.replay(acctDb, fromPosition);
+        }
+        catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        if (durability != Durability.PER_OPERATION) {
+            journal.flusher = new Thread(journal::runFlusher,
+                    "transaction-journal-flusher");
+            journal.flusher.setDaemon(true);
+            journal.flusher.start();
+        }
+        return journal;
+    }
+
+    /**
+     * Returns the log position after the last logged transaction,
+     * which a snapshot taken now is consistent with
+     * @return log position
+     */
+    public long getPosition() {
+        lock.lock();
+        try {
+            return appendedPosition;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Logs the opening of an account
+     * @param acct the opened account
+     * @return log position after the record
+     */
+    public long logOpen(Account acct) {
+        long position = appendOpen(acct);
+        commit(position);
+        return position;
+    }
+
+    /**
+     * Logs the opening of many accounts with a single commit
+     * @param accts the opened accounts
+     * @return log position after the last record
+     * @throws IllegalArgumentException if a name is too long to log,
+     *         in which case none of the accounts is logged
+     */
+    public long logOpens(Iterable<Account> accts) {
+        for (Account acct : accts) {
+            checkNames(acct.getProfile());
+        }
+        long position = getPosition();
+        for (Account acct : accts) {
+            position = appendOpen(acct);
+        }
+        commit(position);
+        return position;
+    }
+
+    /**
+     * Logs the closing of an account
+     * @param type account type
+     * @param holder account holder's profile
+     * @return log position after the record
+     */
+    public long logClose(AccountType type, Profile holder) {
+        return log(CLOSE, type, holder, NO_AMOUNT);
+    }
+
+    /**
+     * Logs a deposit into an account
+     * @param type account type
+     * @param holder account holder's profile
+     * @param amount deposit amount in cents
+     * @return log position after the record
+     */
+    public long logDeposit(AccountType type, Profile holder, long amount) {
+        return log(DEPOSIT, type, holder, amount);
+    }
+
+    /**
+     * Logs a withdrawal from an account
+     * @param type account type
+     * @param holder account holder's profile
+     * @param amount withdrawal amount in cents
+     * @return log position after the record
+     */
+    public long logWithdraw(AccountType type, Profile holder, long amount) {
+        return log(WITHDRAW, type, holder, amount);
+    }
+
+    /**
+     * Logs the postings of a batch about to be applied with a single
+     * commit. Replay applies them one by one, which has the same outcome
+     * as applying the batch.
+     * @param batch the postings
+     * @return log position after the last record
+     * @throws IllegalArgumentException if a name is too long to log,
+     *         in which case none of the postings is logged
+     */
+    public long logPostings(List<Posting> batch) {
+        for (Posting posting : batch) {
+            checkNames(posting.getHolder());
+        }
+        long position = getPosition();
+        for (Posting posting : batch) {
+            position = append(posting.isDeposit() ? DEPOSIT : WITHDRAW,
+                    posting.getType(), posting.getHolder(),
+                    posting.getAmount());
+        }
+        commit(position);
+        return position;
+    }
+
+    /**
+     * Logs the monthly application of interests and fees along with the
+     * rate table it uses, so replay applies the same rates even after
+     * the table in effect has changed
+     * @param rates rate table of the month-end run
+     * @return log position after the record
+     */
+    public long logMonthly(RateTable rates) {
+        long position;
+        lock.lock();
+        try {
+            int start = beginRecord(1 + RateTable.ENCODED_BYTES);
+            pending.put(MONTHLY);
+            rates.writeTo(pending);
+            position = endRecord(start);
+        }
+        finally {
+            lock.unlock();
+        }
+        commit(position);
+        return position;
+    }
+
+    /**
+     * Waits until the records up to a log position are on disk, asking
+     * the background flusher to force them now; records logged by other
+     * threads meanwhile are forced together
+     * @param position log position returned when a record was logged
+     * @throws UncheckedIOException if the journal cannot be written
+     */
+    public void awaitDurable(long position) {
+        if (flusher == null) {
+            sync();
+            return;
+        }
+        lock.lock();
+        try {
+            hasPending.signal();
+            while (durablePosition < position && failure == null) {
+                isDurable.awaitUninterruptibly();
+            }
+            if (durablePosition < position) {
+                throw new UncheckedIOException(failure);
+            }
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forces every logged transaction to disk before returning
+     */
+    public void sync() {
+        try {
+            flush();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Forces every logged transaction to disk and closes the journal
+     * @throws IOException if the journal cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            isClosed = true;
+            hasPending.signalAll();
+        }
+        finally {
+            lock.unlock();
+        }
+        if (flusher != null) {
+            try {
+                flusher.join();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            flush();
+        }
+        finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Logs a transaction on an account and commits it
+     * @param op kind of transaction
+     * @param type account type
+     * @param holder account holder's profile
+     * @param amount amount in cents
+     * @return log position after the record
+     */
+    private long log(byte op, AccountType type, Profile holder, long amount) {
+        long position = append(op, type, holder, amount);
+        commit(position);
+        return position;
+    }
+
+    /**
+     * Appends a transaction on an account without committing it
+     * @param op kind of transaction
+     * @param type account type
+     * @param holder account holder's profile
+     * @param amount amount in cents
+     * @return log position after the record
+     */
+    private long append(byte op, AccountType type, Profile holder,
+                        long amount) {
+        byte[] fname = encode(holder.getFname());
+        byte[] lname = encode(holder.getLname());
+        long position;
+        lock.lock();
+        try {
+            int start = beginRecord(FIXED_BODY_BYTES + fname.length
+                    + lname.length);
+            pending.put(op);
+            putAccount(type, fname, lname, holder.getDOB(), amount);
+            position = endRecord(start);
+        }
+        finally {
+            lock.unlock();
+        }
+        return position;
+    }
+
+    /**
+     * Appends the opening of an account without committing it
+     * @param acct the opened account
+     * @return log position after the record
+     */
+    private long appendOpen(Account acct) {
+        Profile holder = acct.getProfile();
+        byte[] fname = encode(holder.getFname());
+        byte[] lname = encode(holder.getLname());
+        byte campus = NO_CAMPUS;
+        if (acct instanceof CollegeChecking) {
+            campus = (byte) ((CollegeChecking) acct).getCampus().getCampusCode();
+        }
+        boolean isLoyal = acct instanceof Savings && ((Savings) acct).isLoyal();
+        lock.lock();
+        try {
+            int start = beginRecord(FIXED_BODY_BYTES + fname.length
+                    + lname.length);
+            pending.put(OPEN);
+            putAccount(acct.getType(), fname, lname, holder.getDOB(),
+                    acct.getBalance());
+            pending.put(campus);
+            pending.put(isLoyal ? TRUE : FALSE);
+            return endRecord(start);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Encodes a name as UTF-8, checking that its length fits in the
+     * 2-byte length written before it
+     * @param name the name
+     * @return the encoded name
+     * @throws IllegalArgumentException if the name is too long
+     */
+    private static byte[] encode(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > AccountValidator.MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Name too long to log: "
+                    + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
+    /**
+     * Checks that the names of a holder can be logged
+     * @param holder account holder's profile
+     * @throws IllegalArgumentException if a name is too long
+     */
+    private static void checkNames(Profile holder) {
+        if (!AccountValidator.checkNames(holder).isOk()) {
+            throw new IllegalArgumentException("Name too long to log");
+        }
+    }
+
+    /**
+     * Reserves room for a record header and body in the pending buffer.
+     * Must be called holding the lock.
+     * @param maxBodyBytes upper bound of the body size
+     * @return buffer position of the record
+     */
+    private int beginRecord(int maxBodyBytes) {
+        if (failure != null) {
+            throw new UncheckedIOException(failure);
+        }
+        if (isClosed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        int needed = HEADER_BYTES + maxBodyBytes;
+        if (pending.remaining() < needed) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(
+                    pending.capacity() * 2, pending.position() + needed));
+            pending.flip();
+            larger.put(pending);
+            pending = larger;
+        }
+        int start = pending.position();
+        pending.position(start + HEADER_BYTES);
+        return start;
+    }
+
+    /**
+     * Fills in the header of the record written after beginRecord.
+     * Must be called holding the lock.
+     * @param start buffer position of the record
+     * @return log position after the record
+     */
+    private long endRecord(int start) {
+        int end = pending.position();
+        int length = end - start - HEADER_BYTES;
+        ByteBuffer body = pending.duplicate();
+        body.position(start + HEADER_BYTES).limit(end);
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        pending.putInt(start, length);
+        pending.putInt(start + Integer.BYTES, (int) crc.getValue());
+        appendedPosition += HEADER_BYTES + length;
+        return appendedPosition;
+    }
+
+    /**
+     * Writes the fields identifying an account and an amount. The name
+     * lengths are written as unsigned 2-byte numbers.
+     * @param type account type
+     * @param fname encoded first name, at most 65535 bytes
+     * @param lname encoded last name, at most 65535 bytes
+     * @param dob date of birth
+     * @param amount amount in cents
+     */
+    private void putAccount(AccountType type, byte[] fname, byte[] lname,
+                            Date dob, long amount) {
+        pending.put((byte) type.getTypeCode());
+        pending.putShort((short) fname.length).put(fname);
+        pending.putShort((short) lname.length).put(lname);
+        pending.putInt(dob.getYear());
+        pending.put((byte) dob.getMonth());
+        pending.put((byte) dob.getDay());
+        pending.putLong(amount);
+    }
+
+    /**
+     * Makes a logged record durable as the durability mode requires
+     * @param position log position after the record
+     */
+    private void commit(long position) {
+        if (durability == Durability.PER_OPERATION) {
+            sync();
+            return;
+        }
+        if (durability == Durability.ASYNC) {
+            return;
+        }
+        awaitDurable(position);
+    }
+
+    /**
+     * Writes every appended record and forces it to disk
+     * @throws IOException if the journal cannot be written
+     */
+    private void flush() throws IOException {
+        flushLock.lock();
+        try {
+            long end;
+            lock.lock();
+            try {
+                if (failure != null) {
+                    throw new IOException("Journal failed earlier", failure);
+                }
+                ByteBuffer full = pending;
+                pending = writing;
+                writing = full;
+                end = appendedPosition;
+            }
+            finally {
+                lock.unlock();
+            }
+            try {
+                writing.flip();
+                while (writing.hasRemaining()) {
+                    channel.write(writing);
+                }
+                writing.clear();
+                channel.force(false);
+            }
+            catch (IOException e) {
+                fail(e);
+                throw e;
+            }
+            lock.lock();
+            try {
+                durablePosition = Math.max(durablePosition, end);
+                isDurable.signalAll();
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+        finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Records the first write failure, after which every append, wait and
+     * flush fails at once instead of writing after a partly written buffer
+     * @param e the failure
+     */
+    private void fail(IOException e) {
+        lock.lock();
+        try {
+            if (failure == null) {
+                failure = e;
+            }
+            isDurable.signalAll();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Flushes appended records in the background until the journal closes
+     */
+    private void runFlusher() {
+        while (true) {
+            lock.lock();
+            try {
+                while (!isClosed && pending.position() == 0) {
+                    if (durability == Durability.ASYNC) {
+                        hasPending.await(ASYNC_FLUSH_MILLIS,
+                                TimeUnit.MILLISECONDS);
+                    }
+                    else {
+                        hasPending.await();
+                    }
+                }
+                if (isClosed) {
+                    return;
+                }
+            }
+            catch (InterruptedException e) {
+                return;
+            }
+            finally {
+                lock.unlock();
+            }
+            try {
+                flush();
+            }
+            catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Replays the records after a log position into a database and cuts
+     * off a record torn by a crash
+     * @param acctDb database the records are replayed into
+     * @param fromPosition log position to replay from
+     * @throws IOException if the journal cannot be read
+     */
+    private void replay(AccountDatabase acctDb, long fromPosition)
+            throws IOException {
+        long recordPosition = Math.min(fromPosition, channel.size());
+        readPosition = recordPosition;
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_BYTES);
+        buffer.flip();
+        while (true) {
+            buffer = fill(buffer, HEADER_BYTES);
+            if (buffer.remaining() < HEADER_BYTES) {
+                break;
+            }
+            int length = buffer.getInt(buffer.position());
+            int checksum = buffer.getInt(buffer.position() + Integer.BYTES);
+            if (length <= 0 || length > MAX_RECORD_BYTES) {
+                break;
+            }
+            buffer = fill(buffer, HEADER_BYTES + length);
+            if (buffer.remaining() < HEADER_BYTES + length) {
+                break;
+            }
+            ByteBuffer body = buffer.duplicate();
+            body.position(buffer.position() + HEADER_BYTES);
+            body.limit(body.position() + length);
+            CRC32 crc = new CRC32();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            apply(body, acctDb);
+            buffer.position(buffer.position() + HEADER_BYTES + length);
+            recordPosition += HEADER_BYTES + length;
+        }
+        channel.truncate(recordPosition);
+        channel.position(recordPosition);
+        appendedPosition = recordPosition;
+        durablePosition = recordPosition;
+    }
+
+    /**
+     * Reads from the journal until the buffer holds the specified number
+     * of unread bytes or the end of the journal is reached
+     * @param buffer buffer in read mode
+     * @param needed number of unread bytes needed
+     * @return buffer in read mode, larger than before if needed
+     * @throws IOException if the journal cannot be read
+     */
+    private ByteBuffer fill(ByteBuffer buffer, int needed) throws IOException {
+        if (buffer.remaining() >= needed) {
+            return buffer;
+        }
+        if (buffer.capacity() < needed) {
+            ByteBuffer larger = ByteBuffer.allocate(needed);
+            larger.put(buffer);
+            buffer = larger;
+        }
+        else {
+            buffer.compact();
+        }
+        while (buffer.position() < needed) {
+            int read = channel.read(buffer, readPosition);
+            if (read < 0) {
+                break;
+            }
+            readPosition += read;
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Applies a record to a database
+     * @param body body of the record
+     * @param acctDb the account database
+     */
+    private static void apply(ByteBuffer body, AccountDatabase acctDb) {
+        byte op = body.get();
+        if (op == MONTHLY) {
+            acctDb.applyMonthlyInterestAndFees(RateTable.readFrom(body));
+            return;
+        }
+        AccountType type = AccountType.fromCode(body.get());
+        String fname = getString(body);
+        String lname = getString(body);
+        Date dob = new Date(body.getInt(), body.get(), body.get());
+        Profile holder = new Profile(fname, lname, dob);
+        long amount = body.getLong();
+        switch (op) {
+            case OPEN:
+                Campus campus = Campus.fromCode(body.get());
+                boolean isLoyal = body.get() == TRUE;
+                acctDb.open(TransactionEngine.makeAccount(type, holder, amount,
+                        campus, isLoyal));
+                break;
+            case CLOSE:
+                acctDb.close(TransactionEngine.makeAccount(type, holder,
+                        NO_AMOUNT, null, false));
+                break;
+            case DEPOSIT:
+                acctDb.deposit(type, holder, amount);
+                break;
+            case WITHDRAW:
+                acctDb.withdraw(type, holder, amount);
+                break;
+            default:
+                throw new IllegalStateException("Unknown journal record " + op);
+        }
+    }
+
+    /**
+     * Reads a length-prefixed UTF-8 string
+     * @param body body of a record
+     * @return the string
+     */
+    private static String getString(ByteBuffer body) {
+        byte[] bytes = new byte[Short.toUnsignedInt(body.getShort())];
+        body.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
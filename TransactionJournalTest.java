@@ -0,0 +1,257 @@
+package banking;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Tests the TransactionJournal class
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class TransactionJournalTest {
+    private static final Profile BILL = new Profile("Bill", "Gates",
+            new Date(1976, 1, 1));
+    private static final Profile JANE = new Profile("Jane", "Doe",
+            new Date(1980, 5, 5));
+
+    @org.junit.Rule
+    public org.junit.rules.TemporaryFolder folder =
+            new org.junit.rules.TemporaryFolder();
+
+    /**
+     * Test case #1
+     * Tests if replaying the journal rebuilds the accounts, including
+     * the transactions the database refused
+     */
+    @org.junit.Test
+    public void test_Replay() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("journal");
+        try (TransactionJournal journal = open(file, new AccountDatabase())) {
+            TransactionEngine engine = new TransactionEngine(
+                    new AccountDatabase(), journal);
+            engine.open(AccountType.CHECKING, BILL, 10000, null, false);
+            engine.open(AccountType.SAVINGS, JANE, 50000, null, true);
+            engine.deposit(AccountType.CHECKING, BILL, 500);
+            assertEquals(ResultCode.INSUFFICIENT_FUNDS,
+                    engine.withdraw(AccountType.CHECKING, BILL, 20000));
+            engine.withdraw(AccountType.SAVINGS, JANE, 2000);
+            engine.post(Arrays.asList(
+                    Posting.withdrawal(AccountType.CHECKING, BILL, 15000),
+                    Posting.deposit(AccountType.CHECKING, BILL, 5000),
+                    Posting.withdrawal(AccountType.CHECKING, BILL, 15000)));
+            engine.close(AccountType.SAVINGS, JANE);
+        }
+        AccountDatabase replayed = new AccountDatabase();
+        open(file, replayed).close();
+        assertEquals(1, replayed.size());
+        assertEquals(500, replayed.getRelationshipBalance(BILL));
+        assertEquals(0, replayed.getAccounts(JANE).length);
+    }
+
+    /**
+     * Test case #2
+     * Tests if a record torn by a crash is cut off and later records
+     * are appended after the last complete one
+     */
+    @org.junit.Test
+    public void test_TornTail() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("journal");
+        long complete = writeThreeRecords(file);
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+        AccountDatabase replayed = new AccountDatabase();
+        try (TransactionJournal journal = open(file, replayed)) {
+            assertEquals(complete, journal.getPosition());
+            assertEquals(complete, Files.size(file));
+            assertEquals(10100, replayed.getRelationshipBalance(BILL));
+            new TransactionEngine(replayed, journal)
+                    .deposit(AccountType.CHECKING, BILL, 1);
+        }
+        AccountDatabase again = new AccountDatabase();
+        open(file, again).close();
+        assertEquals(10101, again.getRelationshipBalance(BILL));
+    }
+
+    /**
+     * Test case #3
+     * Tests if a record whose checksum does not match is not replayed
+     */
+    @org.junit.Test
+    public void test_ChecksumMismatch() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("journal");
+        long complete = writeThreeRecords(file);
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            long amountByte = channel.size() - 1;
+            channel.read(last, amountByte);
+            last.put(0, (byte) (last.get(0) ^ 1)).rewind();
+            channel.write(last, amountByte);
+        }
+        AccountDatabase replayed = new AccountDatabase();
+        try (TransactionJournal journal = open(file, replayed)) {
+            assertEquals(complete, journal.getPosition());
+            assertEquals(10100, replayed.getRelationshipBalance(BILL));
+        }
+    }
+
+    /**
+     * Test case #4
+     * Tests if a name over 32767 bytes is replayed intact and a name too
+     * long for its length field is refused with a result code before
+     * anything is logged or applied
+     */
+    @org.junit.Test
+    public void test_LongNames() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("journal");
+        Profile longName = new Profile(name(40000), "Gates",
+                new Date(1976, 1, 1));
+        Profile tooLong = new Profile(name(70000), "Gates",
+                new Date(1976, 1, 1));
+        AccountDatabase acctDb = new AccountDatabase();
+        try (TransactionJournal journal = open(file, new AccountDatabase())) {
+            TransactionEngine engine = new TransactionEngine(acctDb, journal);
+            engine.open(AccountType.CHECKING, longName, 10000, null, false);
+            long position = journal.getPosition();
+            assertEquals(ResultCode.NAME_TOO_LONG, engine.open(
+                    AccountType.CHECKING, tooLong, 10000, null, false));
+            assertEquals(ResultCode.NAME_TOO_LONG, engine.deposit(
+                    AccountType.CHECKING, tooLong, 1));
+            engine.post(Arrays.asList(
+                    Posting.deposit(AccountType.CHECKING, tooLong, 1)));
+            assertEquals(position, journal.getPosition());
+            engine.deposit(AccountType.CHECKING, longName, 1);
+        }
+        assertEquals(1, acctDb.size());
+        AccountDatabase replayed = new AccountDatabase();
+        open(file, replayed).close();
+        assertEquals(1, replayed.size());
+        assertEquals(10001, replayed.getRelationshipBalance(longName));
+    }
+
+    /**
+     * Test case #5
+     * Tests if a month-end run is replayed with the rates and Money
+     * Market loyalty balance it used, not with those in effect at
+     * recovery
+     */
+    @org.junit.Test
+    public void test_MonthlyRates() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("journal");
+        AccountDatabase acctDb = new AccountDatabase();
+        try (TransactionJournal journal = open(file, new AccountDatabase())) {
+            TransactionEngine engine = new TransactionEngine(acctDb, journal);
+            engine.open(AccountType.SAVINGS, JANE, 1200000, null, false);
+            engine.open(AccountType.MONEY_MARKET, BILL, 240000, null, false);
+            engine.report(ReportType.UPDATED_BALANCES);
+        }
+        Properties config = new Properties();
+        config.setProperty("S.rate", "1200");
+        config.setProperty("MM.loyaltyBalance", "300000");
+        RateTable.install(RateTable.parse(config));
+        try {
+            AccountDatabase replayed = new AccountDatabase();
+            open(file, replayed).close();
+            assertEquals(acctDb.getRelationshipBalance(JANE),
+                    replayed.getRelationshipBalance(JANE));
+            assertEquals(1204000, replayed.getRelationshipBalance(JANE));
+            assertEquals(240950, replayed.getRelationshipBalance(BILL));
+        }
+        finally {
+            RateTable.install(RateTable.DEFAULT);
+        }
+    }
+
+    /**
+     * Test case #6
+     * Tests if a failed write is latched, so the transaction is not
+     * applied and every later transaction fails before it is logged
+     */
+    @org.junit.Test
+    public void test_WriteFailure() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("journal");
+        AccountDatabase acctDb = new AccountDatabase();
+        TransactionJournal journal = open(file, new AccountDatabase());
+        TransactionEngine engine = new TransactionEngine(acctDb, journal);
+        engine.open(AccountType.CHECKING, BILL, 10000, null, false);
+        Thread.currentThread().interrupt(); //closes the channel mid-write
+        try {
+            engine.deposit(AccountType.CHECKING, BILL, 100);
+            fail("A deposit was applied after its write failed");
+        }
+        catch (UncheckedIOException e) {
+            assertTrue(Thread.interrupted());
+        }
+        long failed = journal.getPosition();
+        try {
+            engine.deposit(AccountType.CHECKING, BILL, 200);
+            fail("A deposit was logged after the journal failed");
+        }
+        catch (UncheckedIOException e) {
+            assertEquals(failed, journal.getPosition());
+            assertEquals(10000, acctDb.getRelationshipBalance(BILL));
+        }
+        try {
+            journal.close();
+            fail("A failed journal closed cleanly");
+        }
+        catch (IOException e) {
+            //expected
+        }
+        AccountDatabase replayed = new AccountDatabase();
+        open(file, replayed).close();
+        assertEquals(10000, replayed.getRelationshipBalance(BILL));
+    }
+
+    /**
+     * Returns a name of the specified length
+     * @param length number of characters
+     * @return the name
+     */
+    private static String name(int length) {
+        char[] name = new char[length];
+        Arrays.fill(name, 'a');
+        return new String(name);
+    }
+
+    /**
+     * Writes an opening, a deposit and a withdrawal to a new journal
+     * @param file the journal file
+     * @return log position after the first two records
+     * @throws IOException if the journal cannot be written
+     */
+    private static long writeThreeRecords(Path file) throws IOException {
+        try (TransactionJournal journal = open(file, new AccountDatabase())) {
+            TransactionEngine engine = new TransactionEngine(
+                    new AccountDatabase(), journal);
+            engine.open(AccountType.CHECKING, BILL, 10000, null, false);
+            engine.deposit(AccountType.CHECKING, BILL, 100);
+            long complete = journal.getPosition();
+            engine.withdraw(AccountType.CHECKING, BILL, 200);
+            return complete;
+        }
+    }
+
+    /**
+     * Opens a journal forcing every record to disk
+     * @param file the journal file
+     * @param acctDb database the journal is replayed into
+     * @return the journal
+     * @throws IOException if the journal cannot be opened
+     */
+    private static TransactionJournal open(Path file, AccountDatabase acctDb)
+            throws IOException {
+        return TransactionJournal.open(file,
+                TransactionJournal.Durability.PER_OPERATION, acctDb, 0);
+    }
+}
@@ -1,9 +1,15 @@
 package com.banking;
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.Scanner;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.stage.*;
 import javafx.stage.FileChooser.ExtensionFilter;
@@ -12,6 +18,12 @@ import javafx.event.ActionEvent;
 
 /**
  * This class is the controller for the Transaction Manager GUI.
+ * It reads the input fields and passes each transaction to the
+ * transaction engine. The engine runs on a single background worker, so
+ * the database has one writer and the window stays responsive during
+ * long loads and reports; their messages are collected in a buffer that
+ * is shown once per frame. The accounts are kept in a transaction store,
+ * recovered when the window opens and closed with the window.
  * @author Jeeva Ramasamy, Parth Patel
  */
 public class TransactionManagerController {
@@ -41,13 +53,126 @@ public class TransactionManagerController {
     private CheckBox loyalCustomer;
     @FXML
     private TextArea output;
+    @FXML
+    private ProgressBar progress;
+    @FXML
+    private Label status;
+
+    private AccountDatabase acctDb = new AccountDatabase(); //used by the worker only
+    private TransactionEngine engine = new TransactionEngine(acctDb);
+    private TransactionStore store; //null if changes are not saved
+    private RateTableWatcher rates; //null if the rates are not watched
+    private final OutputBuffer pending = new OutputBuffer(MAX_OUTPUT_CHARS); //output not shown yet
+    private final ExecutorService worker =
+            Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "transaction-worker");
+                thread.setDaemon(true);
+                return thread;
+            }); //only thread using the database
+
+    private static final int MAX_OUTPUT_CHARS = 1 << 20;
+
+    /**
+     * Starts showing the buffered output once per frame and recovers the
+     * accounts of the transaction store before any transaction runs
+     */
+    @FXML
+    void initialize() {
+        new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                flushOutput();
+            }
+        }.start();
+        runWithProgress(new Task<Void>() {
+            @Override
+            protected Void call() {
+                updateMessage("Recovering accounts...");
+                openStore();
+                return null;
+            }
+        }, recovered -> { });
+    }
+
+    /**
+     * Opens the transaction store on the worker, or keeps the accounts in
+     * memory only if it cannot be opened, and starts following the rate
+     * configuration file in the directory of the store
+     */
+    private void openStore() {
+        try {
+            store = TransactionStore.open(TransactionStore.DEFAULT_DIRECTORY,
+                    TransactionJournal.Durability.PER_OPERATION);
+        }
+        catch (IOException | RuntimeException e) {
+            pending.append("Cannot open " + TransactionStore.DEFAULT_DIRECTORY
+                    + ", changes will not be saved: " + e.getMessage() + "\n");
+            return;
+        }
+        acctDb = store.getDatabase();
+        engine = store.getEngine();
+        pending.append(acctDb.size() + " accounts recovered.\n");
+        try {
+            rates = new RateTableWatcher(TransactionStore.DEFAULT_DIRECTORY
+                    .resolve(RateTable.CONFIG_FILE),
+                    message -> pending.append(message + "\n"));
+        }
+        catch (IOException e) {
+            pending.append("Cannot watch " + RateTable.CONFIG_FILE
+                    + ", rates will not be reloaded: " + e.getMessage() + "\n");
+        }
+    }
+
+    /**
+     * Waits for the transactions handed to the worker, then stops
+     * following the rate configuration and closes the transaction store
+     */
+    public void shutdown() {
+        try {
+            worker.submit(() -> {
+                if (rates != null) {
+                    rates.close();
+                }
+                if (store != null) {
+                    store.close();
+                }
+                return null;
+            }).get();
+        }
+        catch (ExecutionException e) {
+            System.err.println("Cannot close the transaction store: "
+                    + e.getCause().getMessage());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        worker.shutdown();
+    }
 
-    private AccountDatabase acctDb = new AccountDatabase();
-    private static final double EMPTY = 0.0;
-    private static final int MIN_AGE = 16;
-    private static final int COLLEGE_MAX_AGE = 24;
-    private static final int MIN_MONEYMARKET_DEPOSIT = 2000;
-    private static final int DOB_CREDENTIALS = 3;
+    /**
+     * Moves the buffered output into the output area, dropping the oldest
+     * text once the area holds more than its limit
+     */
+    private void flushOutput() {
+        String text = pending.drain();
+        if (text == null) {
+            return;
+        }
+        output.appendText(text);
+        int excess = output.getLength() - MAX_OUTPUT_CHARS;
+        if (excess > 0) {
+            output.deleteText(0, excess);
+        }
+    }
+
+    /**
+     * Prints a message after the output of the transactions already
+     * handed to the worker
+     * @param message the message
+     */
+    private void say(String message) {
+        worker.execute(() -> pending.append(message));
+    }
 
     /**
      * Disables campus and loyal customer options when checking is selected
@@ -176,24 +301,17 @@ public class TransactionManagerController {
             initialDep = Double.parseDouble(amountO.getText());
         }
         catch (NumberFormatException e) {
-            output.appendText("Not a valid amount.\n");
-            return;
-        }
-        Account acct = makeAccount(profile, initialDep);
-        if (acct == null) {
-            output.appendText("Missing data for opening an account.\n");
-            return;
-        }
-        if (!isValidCredentials(acct.getAcctSymbol(), profile.getDOB(),
-                initialDep)) {
+            say("Not a valid amount.\n");
             return;
         }
-        if (isValidOpenAcct(acctDb, acct)) {
-            acctDb.open(acct);
-            output.appendText(profile + "(" + acct.getAcctSymbol()
-                    + ") opened.\n");
-            onClearOButtonClick(event);
-        }
+        Command command = Command.open(getAcctType(), profile,
+                Money.fromDollars(initialDep), getCampus(),
+                loyalCustomer.isSelected());
+        run(command, result -> {
+            if (result.isOk()) {
+                onClearOButtonClick(event);
+            }
+        });
     }
 
     /**
@@ -206,20 +324,11 @@ public class TransactionManagerController {
         if (profile == null) {
             return;
         }
-        Account acct = makeAccount(profile);
-        if (acct == null) {
-            output.appendText("Missing data for closing an account.\n");
-            return;
-        }
-        if (acctDb.close(acct)) {
-            output.appendText(profile + "(" + acct.getAcctSymbol()
-                    + ") has been closed.\n");
-            onClearCButtonClick(event);
-        }
-        else {
-            output.appendText(profile + "(" + acct.getAcctSymbol()
-                    + ") is not in the database.\n");
-        }
+        run(Command.close(getAcctType(), profile), result -> {
+            if (result.isOk()) {
+                onClearCButtonClick(event);
+            }
+        });
     }
 
     /**
@@ -237,30 +346,16 @@ public class TransactionManagerController {
             deposit = Double.parseDouble(amountDW.getText());
         }
         catch (NumberFormatException e) {
-            output.appendText("Not a valid amount.\n");
+            say("Not a valid amount.\n");
             return;
         }
-        if (deposit <= EMPTY) {
-            output.appendText("Deposit - amount cannot be "
-                    + "0 or negative.\n");
-            return;
-        }
-        Account acct = makeAccount(profile, deposit);
-        if (acct == null) {
-            output.appendText("Missing data for depositing into"
-                    + " an account.\n");
-            return;
-        }
-        if (acctDb.contains(acct)) {
-            acctDb.deposit(acct);
-            output.appendText(profile + "(" + acct.getAcctSymbol() +
-                    ") Deposit - balance updated.\n");
-            onClearDWButtonClick(event);
-        }
-        else {
-            output.appendText(profile + "(" + acct.getAcctSymbol() +
-                    ") is not in the database.\n");
-        }
+        Command command = Command.deposit(getAcctType(), profile,
+                Money.fromDollars(deposit));
+        run(command, result -> {
+            if (result.isOk()) {
+                onClearDWButtonClick(event);
+            }
+        });
     }
 
     /**
@@ -278,32 +373,49 @@ public class TransactionManagerController {
             amount = Double.parseDouble(amountDW.getText());
         }
         catch (NumberFormatException e) {
-            output.appendText("Not a valid amount.\n");
+            say("Not a valid amount.\n");
             return;
         }
-        if (amount <= EMPTY) {
-            output.appendText("Withdraw - amount cannot be "
-                    + "0 or negative.\n");
-            return;
-        }
-        isWithdrawable(profile, amount);
-        onClearDWButtonClick(event);
+        Command command = Command.withdraw(getAcctType(), profile,
+                Money.fromDollars(amount));
+        run(command, result -> {
+            if (result != ResultCode.NON_POSITIVE_AMOUNT) {
+                onClearDWButtonClick(event);
+            }
+        });
     }
 
     /**
-     * Prints the account database based on the selected option
+     * Shows the selected report of the account database in its own window
      * @param event the action event
      */
     @FXML
     void onPrintButtonClick(ActionEvent event) {
+        ReportType report = null;
         if (acctsOnly.isSelected()) {
-            output.appendText(acctDb.printSorted());
+            report = ReportType.ACCOUNTS;
         }
         else if (acctsInterestsFees.isSelected()) {
-            output.appendText(acctDb.printFeesAndInterests());
+            report = ReportType.FEES_AND_INTERESTS;
         }
         else if (acctsUpdatedInterestsFees.isSelected()) {
-            output.appendText(acctDb.printUpdatedBalances());
+            report = ReportType.UPDATED_BALANCES;
+        }
+        if (report != null) {
+            ReportType selected = report;
+            runWithProgress(new Task<AccountReport>() {
+                @Override
+                protected AccountReport call() {
+                    updateMessage("Preparing the report...");
+                    AccountReport taken = engine.report(selected);
+                    pending.append(taken.getTitle() + "\n");
+                    return taken;
+                }
+            }, taken -> {
+                if (taken.size() > 0) {
+                    AccountReportWindow.show(taken);
+                }
+            });
         }
         clearAcctDbTab(event);
     }
@@ -311,10 +423,9 @@ public class TransactionManagerController {
     /**
      * Loads accounts from a file
      * @param event the action event
-     * @throws FileNotFoundException if the file is not found
      */
     @FXML
-    void onLoadButtonClick(ActionEvent event) throws FileNotFoundException {
+    void onLoadButtonClick(ActionEvent event) {
         FileChooser chooser = new FileChooser();
         chooser.setTitle("Open Source File for the Import");
         chooser.getExtensionFilters().addAll(new ExtensionFilter("Text Files", "*.txt"),
@@ -324,46 +435,65 @@ public class TransactionManagerController {
         if (sourceFile == null) {
             return;
         }
-        Scanner scanner = new Scanner(sourceFile);
-        while (scanner.hasNextLine()) {
-            addLoadedAccount(scanner.nextLine());
-        }
-        output.appendText("Accounts loaded.\n");
+        String name = sourceFile.getName();
+        runWithProgress(new Task<Void>() {
+            @Override
+            protected Void call() {
+                updateMessage("Loading " + name + "...");
+                AccountLoader.LoadResult result;
+                try {
+                    result = new AccountLoader(acctDb,
+                            engine.getJournal()).load(
+                            sourceFile.toPath(), linesRead -> updateMessage(
+                                    "Loading " + name + ": " + linesRead
+                                            + " lines read"));
+                }
+                catch (IOException e) {
+                    pending.append("Cannot read " + name + ".\n");
+                    return null;
+                }
+                for (String error : result.getErrors()) {
+                    pending.append(error);
+                }
+                pending.append("Accounts loaded.\n");
+                return null;
+            }
+        }, loaded -> { });
     }
 
     /**
-     * Adds an account to the database based on the input line
-     * @param line the input account
+     * Runs a long task on the worker, showing its progress and status
+     * message while it runs
+     * @param task the task
+     * @param then receives the task's value on the application thread
+     * @param <T> type of the task's value
      */
-    private void addLoadedAccount(String line) {
-        String[] tokens = line.split(",");
-        String acctType = tokens[0];
-        String fName = tokens[1], lName = tokens[2];
-        String[] dobCreds = tokens[3].split("/");
-        Date dob = null;
-        double initialDep = 0;
-        Campus campus = null;
-        boolean isLoyal = false;
-        dob = new Date(Integer.parseInt(dobCreds[2]),
-                Integer.parseInt(dobCreds[0]),
-                Integer.parseInt(dobCreds[1]));
-        initialDep = Double.parseDouble(tokens[4]);
-        if (acctType.equals("CC")) {
-            campus = getCampus(Integer.parseInt(tokens[5]));
-            if (campus == null) {
-                output.appendText("Invalid campus code.\n");
-                return;
-            }
-        }
-        else if (acctType.equals("S")) {
-            isLoyal = tokens[5].equals("1");
-        }
-        Profile profile = new Profile(fName, lName, dob);
-        if (!isValidCredentials(acctType, dob, initialDep)) {
-            return;
-        }
-        Account acct = makeAccount(profile, initialDep, campus, isLoyal, acctType);
-        acctDb.open(acct);
+    private <T> void runWithProgress(Task<T> task, Consumer<T> then) {
+        task.setOnRunning(event -> {
+            status.textProperty().bind(task.messageProperty());
+            progress.progressProperty().bind(task.progressProperty());
+            progress.setVisible(true);
+        });
+        task.setOnSucceeded(event -> {
+            endProgress();
+            then.accept(task.getValue());
+        });
+        task.setOnFailed(event -> {
+            endProgress();
+            pending.append("Cannot complete the operation: "
+                    + task.getException().getMessage() + "\n");
+        });
+        worker.execute(task);
+    }
+
+    /**
+     * Hides the progress of a finished task
+     */
+    private void endProgress() {
+        status.textProperty().unbind();
+        status.setText("");
+        progress.progressProperty().unbind();
+        progress.setVisible(false);
     }
 
     /**
@@ -383,227 +513,79 @@ public class TransactionManagerController {
         return null;
     }
 
-    /**
-     * Returns enum campus that corresponds to input campus
-     * if there is one
-     * @param campus the input campus
-     * @return enum campus if it exists, null otherwise
-     */
-    private Campus getCampus(int campus) {
-        for (Campus c: Campus.values()) {
-            if (c.ordinal() == campus) {
-                return c;
-            }
-        }
-        return null;
-    }
-
     /**
      * Returns the account holder's profile
      * @param acctAction the type of account transaction being done
      * @return profile
      */
     private Profile getProfile(String acctAction) {
-        String fName = "", lName = "";
-        String[] dobCreds = null;
+        String fName = "", lName = "", dob = "";
         if (openTab.isSelected()) {
             fName = firstNameO.getText();
             lName = lastNameO.getText();
-            dobCreds = dobO.getEditor().getText().split("/");
+            dob = dobO.getEditor().getText();
         }
         else if (closeTab.isSelected()) {
             fName = firstNameC.getText();
             lName = lastNameC.getText();
-            dobCreds = dobC.getEditor().getText().split("/");
+            dob = dobC.getEditor().getText();
         }
         else if (dwTab.isSelected()) {
             fName = firstNameDW.getText();
             lName = lastNameDW.getText();
-            dobCreds = dobDW.getEditor().getText().split("/");
+            dob = dobDW.getEditor().getText();
         }
-        if (fName.isEmpty() || lName.isEmpty()
-                || dobCreds.length != DOB_CREDENTIALS) {
-            output.appendText("Missing data for " + acctAction
-                    + " an account.\n");
+        Date dateOfBirth = null;
+        try {
+            dateOfBirth = Date.parse(dob, 0, dob.length());
+        }
+        catch (IllegalArgumentException e) {
+            //reported as missing data below
+        }
+        if (fName.isEmpty() || lName.isEmpty() || dateOfBirth == null) {
+            say("Missing data for " + acctAction + " an account.\n");
             return null;
         }
-        Date dateOfBirth = new Date(Integer.parseInt(dobCreds[2]),
-                Integer.parseInt(dobCreds[0]),
-                Integer.parseInt(dobCreds[1]));
         Profile profile = new Profile(fName, lName, dateOfBirth);
         return profile;
     }
 
     /**
-     * Creates an account using the specified profile
-     * @param profile account holder's profile
-     * @return account
-     */
-    private Account makeAccount(Profile profile) {
-        if (checkingC.isSelected()) {
-            return new Checking(profile);
-        }
-        else if (collegeCheckingC.isSelected()) {
-            return new CollegeChecking(profile);
-        }
-        else if (savingsC.isSelected()) {
-            return new Savings(profile);
-        }
-        else if (moneyMarketC.isSelected()) {
-            return new MoneyMarket(profile);
-        }
-        return null;
-    }
-
-    /**
-     * Creates an account using the specified attributes
-     * @param profile account holder's profile
-     * @param deposit initial deposit
-     * @return account
+     * Returns the selected account type
+     * @return selected account type, or null if none is selected
      */
-    private Account makeAccount(Profile profile, double deposit) {
-        if (checkingO.isSelected() || checkingDW.isSelected()) {
-            return new Checking(profile, deposit);
+    private AccountType getAcctType() {
+        if (checkingO.isSelected() || checkingC.isSelected()
+                || checkingDW.isSelected()) {
+            return AccountType.CHECKING;
         }
         else if (collegeCheckingO.isSelected()
+                || collegeCheckingC.isSelected()
                 || collegeCheckingDW.isSelected()) {
-            if (collegeCheckingO.isSelected() && getCampus() == null) {
-                return null;
-            }
-            return new CollegeChecking(profile, deposit, getCampus());
+            return AccountType.COLLEGE_CHECKING;
         }
-        else if (savingsO.isSelected() || savingsDW.isSelected()) {
-            return new Savings(profile, deposit, loyalCustomer.isSelected());
+        else if (savingsO.isSelected() || savingsC.isSelected()
+                || savingsDW.isSelected()) {
+            return AccountType.SAVINGS;
         }
-        else if (moneyMarketO.isSelected() || moneyMarketDW.isSelected()) {
-            return new MoneyMarket(profile, deposit);
+        else if (moneyMarketO.isSelected() || moneyMarketC.isSelected()
+                || moneyMarketDW.isSelected()) {
+            return AccountType.MONEY_MARKET;
         }
         return null;
     }
 
     /**
-     * Creates an account using the specified attributes
-     * @param profile account holder's profile
-     * @param deposit initial deposit
-     * @param campus campus of account holder if college checking
-     * @param isLoyal boolean representing whether a
-     *                savings account holder is loyal
-     * @param acctType account type
-     * @return account object
-     */
-    private Account makeAccount(Profile profile, double deposit, Campus campus,
-                             boolean isLoyal, String acctType) {
-        switch (acctType) {
-            case "C":
-                return new Checking(profile, deposit);
-            case "CC":
-                return new CollegeChecking(profile, deposit, campus);
-            case "S":
-                return new Savings(profile, deposit, isLoyal);
-            case "MM":
-                return new MoneyMarket(profile, deposit);
-            default:
-                return null;
-        }
-    }
-    
-    /**
-     * Checks whether the input date of birth is valid
-     * @param dob date of birth of account holder
-     * @return true if dob is valid, false otherwise
-     */
-    private boolean isValidDob(Date dob) {
-        if (!dob.isValid()) {
-            output.appendText("DOB invalid: " + dob
-                    + " not a valid calendar date!\n");
-            return false;
-        }
-        if (dob.isToday_Or_FutureDate()) {
-            output.appendText("DOB invalid: " + dob
-                    + " cannot be today or a future day.\n");
-            return false;
-        }
-        return true;
-    }
-
-    /**
-     * Checks whether if the balance is withdrawn properly and
-     * prints a message based on the action done
-     * @param profile account holder's profile
-     * @param amount withdrawal amount
-     */
-    private void isWithdrawable(Profile profile, double amount) {
-        Account acct = makeAccount(profile, amount);
-        if (acct == null) {
-            output.appendText("Missing data for withdrawing from"
-                    + " an account.\n");
-            return;
-        }
-        if (acctDb.contains(acct)) {
-            if (acctDb.withdraw(acct)) {
-                output.appendText(profile + "(" + acct.getAcctSymbol() +
-                        ") Withdraw - balance updated.\n");
-                onClearDWButtonClick(new ActionEvent());
-            }
-            else {
-                output.appendText(profile + "(" + acct.getAcctSymbol() +
-                        ") Withdraw - insufficient fund.\n");
-            }
-        }
-        else {
-            output.appendText(profile + "(" + acct.getAcctSymbol() +
-                    ") is not in the database.\n");
-        }
-    }
-
-    /**
-     * Checks if whether the account to be opened exists
-     * and prints so if it does
-     * @param acctDb the account database
-     * @param acct the account
-     * @return true if the account does not exist, false otherwise
-     */
-    private boolean isValidOpenAcct(AccountDatabase acctDb, Account acct) {
-        boolean isOpening = true;
-        if (acctDb.contains(acct, isOpening)) {
-            output.appendText(acct.getProfile() + "(" + acct.getAcctSymbol()
-                    + ") is already in the database.\n");
-            return false;
-        }
-        return true;
-    }
-
-    /**
-     * Checks whether the input credentials are valid
-     * @param acctType account type
-     * @param dob date of birth of account holder
-     * @param deposit initial deposit
-     * @return true if credentials are valid, false otherwise
+     * Runs a transaction on the worker and prints the message for its
+     * outcome
+     * @param command the transaction
+     * @param then receives the outcome on the application thread
      */
-    private boolean isValidCredentials(String acctType, Date dob,
-                                       double deposit) {
-        if (!isValidDob(dob)) {
-            return false;
-        }
-        if (dob.getAge() < MIN_AGE) {
-            output.appendText("DOB invalid: " + dob
-                    + " under 16.\n");
-            return false;
-        }
-        if (deposit <= EMPTY) {
-            output.appendText("Initial deposit cannot be "
-                    + "0 or negative.\n");
-            return false;
-        }
-        if (acctType.equals("CC") && dob.getAge() >= COLLEGE_MAX_AGE) {
-            output.appendText("DOB invalid: " + dob + " over 24.\n");
-            return false;
-        }
-        if (acctType.equals("MM") && deposit < MIN_MONEYMARKET_DEPOSIT) {
-            output.appendText("Minimum of $2000 to open a "
-                    + "Money Market account.\n");
-            return false;
-        }
-        return true;
+    private void run(Command command, Consumer<ResultCode> then) {
+        worker.execute(() -> {
+            ResultCode result = engine.execute(command);
+            pending.append(command.message(result));
+            Platform.runLater(() -> then.accept(result));
+        });
     }
 }
\ No newline at end of file
@@ -8,6 +8,8 @@ import javafx.stage.Stage;
 import java.io.IOException;
 
 public class TransactionManagerMain extends Application {
+    private TransactionManagerController controller;
+
     @Override
     public void start(Stage stage) throws IOException {
         FXMLLoader fxmlLoader = new FXMLLoader(
@@ -15,12 +17,28 @@ public class TransactionManagerMain extends Application {
                         "TransactionManagerView.fxml"
                 ));
         Scene scene = new Scene(fxmlLoader.load(), 600, 650);
+        controller = fxmlLoader.getController();
         stage.setTitle("Project 3 - Transaction Manager");
         stage.setScene(scene);
         stage.show();
     }
 
+    /**
+     * Closes the transaction store once the window is closed
+     */
+    @Override
+    public void stop() {
+        if (controller != null) {
+            controller.shutdown();
+        }
+    }
+
+    /**
+     * Opens the window; TransactionServerMain runs the engine as a
+     * service without one
+     * @param args command line arguments
+     */
     public static void main(String[] args) {
         launch(args);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,494 @@
+package com.banking;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the transaction engine as a service on a local TCP port, without
+ * a user interface. A client sends one command per line in the format of
+ * Command.parse and receives the message of each command, or the report
+ * it prints, in the order it sent them; it may send many commands
+ * without waiting for their answers. A client that opens with the
+ * BinaryProtocol preamble instead sends frames of binary commands and
+ * receives one frame of result codes per frame, or an error frame with
+ * the codes produced so far if the engine fails on the batch. Each
+ * connection has a thread that reads and parses its commands and one
+ * that writes its answers, taken from a cached pool of daemon threads,
+ * so the number of connections is kept small. A single engine thread runs
+ * every command, so the account database has one writer. Commands wait
+ * in a bounded queue, and each connection can have a bounded number of
+ * unanswered commands, so clients sending faster than the engine runs
+ * are slowed down by TCP flow control instead of filling the memory.
+ * When the engine logs to a journal, an answer is sent only once the
+ * journal is on disk up to the command, so the records of many pipelined
+ * commands are forced to disk together.
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class TransactionServer implements Closeable {
+    private final TransactionEngine engine;
+    private final TransactionJournal journal; //null if not journaled
+    private final ServerSocket serverSocket;
+    private final BlockingQueue<Request> requests; //commands waiting for the engine
+    private final Semaphore connectionSlots; //connections that may still be accepted
+    private final Set<Socket> sockets = ConcurrentHashMap.newKeySet(); //open connections
+    private final ExecutorService connectionThreads; //two per open connection
+    private final Thread runner; //the engine thread
+    private volatile boolean isClosed;
+
+    public static final int DEFAULT_PORT = 7878;
+    private static final int QUEUE_CAPACITY = 1 << 14;
+    private static final int MAX_CONNECTIONS = 1 << 8;
+    static final int MAX_UNANSWERED = 1 << 10; //per connection
+    private static final int BACKLOG = 1 << 10;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final long POLL_MILLIS = 100; //how soon the engine sees the server closed
+
+    /**
+     * Creates a server for the engine listening on a loopback port
+     * @param engine engine running the commands
+     * @param port port to listen on, or 0 for any free port
+     * @throws IOException if the port cannot be opened
+     */
+    public TransactionServer(TransactionEngine engine, int port)
+            throws IOException {
+        this.engine = engine;
+        this.journal = engine.getJournal();
+        this.serverSocket = new ServerSocket(port, BACKLOG,
+                InetAddress.getLoopbackAddress());
+        this.requests = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        this.connectionSlots = new Semaphore(MAX_CONNECTIONS);
+        AtomicInteger count = new AtomicInteger();
+        this.connectionThreads = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable,
+                    "connection-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.runner = new Thread(this::runEngine, "transaction-engine");
+        this.runner.setDaemon(true);
+    }
+
+    /**
+     * Returns the port the server listens on
+     * @return the local port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Starts running commands and accepting connections. The thread
+     * accepting connections keeps the program running until the server
+     * is closed.
+     */
+    public void start() {
+        runner.start();
+        new Thread(this::acceptConnections, "transaction-server").start();
+    }
+
+    /**
+     * Stops accepting connections, closes the open ones and waits for the
+     * engine to finish the commands already queued, so no command runs
+     * once this returns
+     * @throws IOException if the server socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        isClosed = true;
+        serverSocket.close();
+        for (Socket socket : sockets) {
+            closeQuietly(socket);
+        }
+        connectionThreads.shutdown();
+        if (runner.isAlive()) {
+            try {
+                runner.join();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of commands waiting for the engine
+     * @return number of queued commands
+     */
+    int getQueuedCommands() {
+        return requests.size();
+    }
+
+    /**
+     * Accepts connections until the server is closed, holding back new
+     * ones while the most connections are open
+     */
+    private void acceptConnections() {
+        try {
+            while (!isClosed) {
+                connectionSlots.acquire();
+                Socket socket;
+                try {
+                    socket = serverSocket.accept();
+                }
+                catch (IOException e) {
+                    connectionSlots.release();
+                    if (isClosed) {
+                        return;
+                    }
+                    continue;
+                }
+                sockets.add(socket);
+                Connection connection = new Connection(socket);
+                try {
+                    connectionThreads.execute(connection::readCommands);
+                    connectionThreads.execute(connection::writeAnswers);
+                }
+                catch (RejectedExecutionException e) {
+                    closeQuietly(socket); //closed meanwhile
+                    return;
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            //closed
+        }
+    }
+
+    /**
+     * Runs the queued commands one at a time and hands each answered
+     * request back to the connection that sent it, until the server is
+     * closed and no commands are left
+     */
+    private void runEngine() {
+        try {
+            while (true) {
+                Request request = requests.poll(POLL_MILLIS,
+                        TimeUnit.MILLISECONDS);
+                if (request == null) {
+                    if (isClosed) {
+                        return;
+                    }
+                    continue;
+                }
+                try {
+                    answer(request);
+                }
+                catch (RuntimeException e) {
+                    request.answer = "Cannot run the command: " + e + "\n";
+                    request.isFailed = true;
+                }
+                if (journal != null) {
+                    request.position = journal.getPosition();
+                }
+                request.connection.answers.add(request);
+            }
+        }
+        catch (InterruptedException e) {
+            //closed
+        }
+    }
+
+    /**
+     * Runs the commands of a request and records the answer to send back:
+     * the message of the outcome or the printed report for a text
+     * command, or the result of each command of a binary batch
+     * @param request the request
+     */
+    private void answer(Request request) {
+        if (request.error != null) {
+            request.answer = request.error;
+        }
+        else if (request.batch != null) {
+            request.results = new byte[request.batch.length];
+            while (request.completed < request.batch.length) {
+                request.results[request.completed] = BinaryProtocol.toByte(
+                        engine.execute(request.batch[request.completed]));
+                ++request.completed;
+            }
+        }
+        else if (request.command == null) {
+            return;
+        }
+        else if (request.command.getKind() != Command.Kind.PRINT) {
+            request.answer = request.command.message(
+                    engine.execute(request.command));
+        }
+        else {
+            StringBuilder report = new StringBuilder();
+            try {
+                engine.print(request.command.getReport(), report);
+            }
+            catch (IOException e) {
+                throw new AssertionError(e); //a StringBuilder is never closed
+            }
+            request.answer = report.toString();
+        }
+    }
+
+    /**
+     * Closes a socket, ignoring failures
+     * @param socket the socket
+     */
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        }
+        catch (IOException e) {
+            //already closed
+        }
+    }
+
+    /**
+     * Represents a text command or a binary batch of commands waiting
+     * for the engine, and its answer once the engine has run it
+     */
+    private static class Request {
+        private final Connection connection; //sender of the commands
+        private final Command command; //text command, null if none
+        private final String error; //message if the text command is not valid
+        private final Command[] batch; //binary commands, null if none
+        private String answer; //text answer, set by the engine
+        private byte[] results; //result codes of the batch, set by the engine
+        private int completed; //commands of the batch run so far
+        private boolean isFailed; //true if the engine failed on the request
+        private long position; //log position after the commands, set by the engine
+
+        /**
+         * Creates a request for a text command
+         * @param connection sender of the command
+         * @param command the command, null if not valid
+         * @param error message if the command is not valid, null otherwise
+         */
+        private Request(Connection connection, Command command,
+                        String error) {
+            this.connection = connection;
+            this.command = command;
+            this.error = error;
+            this.batch = null;
+        }
+
+        /**
+         * Creates a request for a binary batch of commands
+         * @param connection sender of the commands
+         * @param batch the commands
+         */
+        private Request(Connection connection, Command[] batch) {
+            this.connection = connection;
+            this.command = null;
+            this.error = null;
+            this.batch = batch;
+        }
+
+        /**
+         * Checks whether this request marks the end of the commands of
+         * its connection
+         * @return true if the end of the commands, false otherwise
+         */
+        private boolean isEnd() {
+            return command == null && error == null && batch == null;
+        }
+    }
+
+    /**
+     * Represents a client connection, with the requests the engine has
+     * answered and whose answers are not yet sent
+     */
+    private class Connection {
+        private final Socket socket;
+        private final BlockingQueue<Request> answers = new LinkedBlockingQueue<>();
+        private final Semaphore unanswered = new Semaphore(MAX_UNANSWERED);
+
+        /**
+         * Creates a connection over an accepted socket
+         * @param socket the socket
+         */
+        private Connection(Socket socket) {
+            this.socket = socket;
+        }
+
+        /**
+         * Reads commands until the client stops sending, then queues the
+         * end of the commands. A client whose first byte is the binary
+         * preamble sends binary frames, any other client sends text
+         * lines. The socket is left open for the answers still to be
+         * written.
+         */
+        private void readCommands() {
+            try {
+                InputStream in = new BufferedInputStream(
+                        socket.getInputStream(), BUFFER_SIZE);
+                in.mark(1);
+                if (in.read() == BinaryProtocol.PREAMBLE) {
+                    readFrames(new DataInputStream(in));
+                }
+                else {
+                    in.reset();
+                    readLines(in);
+                }
+            }
+            catch (IOException | InterruptedException e) {
+                //the connection is closed once the answers are written
+            }
+            try {
+                requests.put(new Request(this, null, null));
+            }
+            catch (InterruptedException e) {
+                closeQuietly(socket);
+            }
+        }
+
+        /**
+         * Reads and parses text commands, one per line
+         * @param in the client's input
+         * @throws IOException if the input cannot be read
+         * @throws InterruptedException if interrupted while waiting for
+         *         the engine
+         */
+        private void readLines(InputStream in)
+                throws IOException, InterruptedException {
+            BufferedReader lines = new BufferedReader(new InputStreamReader(
+                    in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = lines.readLine()) != null) {
+                Request request;
+                try {
+                    request = new Request(this, Command.parse(line), null);
+                }
+                catch (IllegalArgumentException e) {
+                    request = new Request(this, null, e.getMessage());
+                }
+                unanswered.acquire();
+                requests.put(request);
+            }
+        }
+
+        /**
+         * Reads and decodes binary frames of commands, each queued for the
+         * engine as one request
+         * @param in the client's input after the preamble
+         * @throws IOException if the input cannot be read or a frame is
+         *         not valid
+         * @throws InterruptedException if interrupted while waiting for
+         *         the engine
+         */
+        private void readFrames(DataInputStream in)
+                throws IOException, InterruptedException {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                }
+                catch (EOFException e) {
+                    return;
+                }
+                if (length < 0 || length > BinaryProtocol.MAX_FRAME_BYTES) {
+                    throw new IOException("Invalid frame length " + length);
+                }
+                byte[] body = new byte[length];
+                in.readFully(body);
+                Command[] batch;
+                try {
+                    batch = BinaryProtocol.getCommands(ByteBuffer.wrap(body));
+                }
+                catch (IllegalArgumentException e) {
+                    throw new IOException(e);
+                }
+                unanswered.acquire();
+                requests.put(new Request(this, batch));
+            }
+        }
+
+        /**
+         * Sends the answers in order, each once its commands are on disk,
+         * flushing whenever no more answers are ready, until the end of
+         * the commands; answers left after the client is gone or the
+         * journal has failed are discarded
+         */
+        private void writeAnswers() {
+            try (OutputStream out = new BufferedOutputStream(
+                    socket.getOutputStream(), BUFFER_SIZE)) {
+                boolean isWritable = true;
+                Request request;
+                while (!(request = answers.take()).isEnd()) {
+                    unanswered.release();
+                    if (isWritable) {
+                        try {
+                            if (journal != null) {
+                                journal.awaitDurable(request.position);
+                            }
+                            write(out, request);
+                            if (answers.isEmpty()) {
+                                out.flush();
+                            }
+                        }
+                        catch (IOException | UncheckedIOException e) {
+                            isWritable = false;
+                            closeQuietly(socket);
+                        }
+                    }
+                }
+            }
+            catch (IOException | InterruptedException e) {
+                //closed below
+            }
+            finally {
+                closeQuietly(socket);
+                sockets.remove(socket);
+                connectionSlots.release();
+            }
+        }
+
+        /**
+         * Writes the answer of a request
+         * @param out the client's output
+         * @param request the answered request
+         * @throws IOException if the output cannot be written
+         */
+        private void write(OutputStream out, Request request)
+                throws IOException {
+            if (request.batch != null && request.isFailed) {
+                String message = request.answer.trim();
+                ByteBuffer frame = ByteBuffer.allocate(
+                        BinaryProtocol.errorFrameBytes(request.completed,
+                                message));
+                BinaryProtocol.putError(frame, request.results,
+                        request.completed, message);
+                out.write(frame.array());
+            }
+            else if (request.batch != null) {
+                ByteBuffer frame = ByteBuffer.allocate(
+                        BinaryProtocol.resultsFrameBytes(request.results.length));
+                BinaryProtocol.putResults(frame, request.results);
+                out.write(frame.array());
+            }
+            else {
+                out.write(request.answer.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.banking;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Starts the transaction engine as a TCP service without a user interface,
+ * so it can run on a headless machine with no JavaFX toolkit. The
+ * accounts are kept in a transaction store in a data directory: they are
+ * recovered when the service starts, every transaction is journaled
+ * before it is answered, and a snapshot is taken when the service stops.
+ * The rate configuration file in the same directory is reloaded whenever
+ * it changes.
+ * Usage: TransactionServerMain [port [directory]]
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class TransactionServerMain {
+    private static final int PORT_ARG = 0;
+    private static final int DIRECTORY_ARG = 1;
+
+    /**
+     * Recovers the accounts and starts serving them until the process is
+     * stopped
+     * @param args optional port, then optional data directory
+     * @throws IOException if the store, configuration or port cannot be
+     *                     opened
+     */
+    public static void main(String[] args) throws IOException {
+        int port = TransactionServer.DEFAULT_PORT;
+        if (args.length > PORT_ARG) {
+            try {
+                port = Integer.parseInt(args[PORT_ARG]);
+            }
+            catch (NumberFormatException e) {
+                System.err.println("Usage: TransactionServerMain "
+                        + "[port [directory]]");
+                System.exit(1);
+            }
+        }
+        Path directory = TransactionStore.DEFAULT_DIRECTORY;
+        if (args.length > DIRECTORY_ARG) {
+            directory = Paths.get(args[DIRECTORY_ARG]);
+        }
+        TransactionStore store = TransactionStore.open(directory,
+                TransactionJournal.Durability.ASYNC);
+        RateTableWatcher rates = new RateTableWatcher(
+                directory.resolve(RateTable.CONFIG_FILE), System.err::println);
+        TransactionServer server = new TransactionServer(store.getEngine(),
+                port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+                store.close();
+                rates.close();
+            }
+            catch (IOException e) {
+                System.err.println("Cannot close the transaction store: "
+                        + e.getMessage());
+            }
+        }));
+        server.start();
+        System.out.println(store.getDatabase().size()
+                + " accounts recovered from " + directory);
+        System.out.println("Listening on port " + server.getPort());
+    }
+}
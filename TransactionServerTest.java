@@ -0,0 +1,177 @@
+package banking;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Tests the TransactionServer class over the loopback interface
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class TransactionServerTest {
+    private static final Profile BILL = new Profile("Bill", "Gates",
+            new Date(1976, 1, 1));
+    private static final int EXTRA_COMMANDS = 100;
+    private static final long TIMEOUT_MILLIS = 10000;
+    private static final long SETTLE_MILLIS = 200;
+
+    /**
+     * Test case #1
+     * Tests if a text client gets the message of each command in order
+     * and a binary client gets the result code of each command of a batch
+     */
+    @org.junit.Test
+    public void test_TextAndBinary() throws IOException {
+        String[] lines = {"O C Bill Gates 1/1/1976 100",
+                "D C Bill Gates 1/1/1976 50",
+                "W C Bill Gates 1/1/1976 1000",
+                "X"};
+        ResultCode[] expected = {ResultCode.OK, ResultCode.OK,
+                ResultCode.INSUFFICIENT_FUNDS};
+        try (TransactionServer server = start(
+                new TransactionEngine(new AccountDatabase()))) {
+            try (Socket socket = connect(server)) {
+                OutputStream out = socket.getOutputStream();
+                out.write((String.join("\n", lines) + "\n")
+                        .getBytes(StandardCharsets.UTF_8));
+                socket.shutdownOutput();
+                StringBuilder answers = new StringBuilder();
+                StringBuilder wanted = new StringBuilder();
+                for (int i = 0; i < expected.length; ++i) {
+                    wanted.append(Command.parse(lines[i]).message(expected[i]));
+                }
+                wanted.append("Invalid command!\n");
+                BufferedReader in = new BufferedReader(new InputStreamReader(
+                        socket.getInputStream(), StandardCharsets.UTF_8));
+                String line;
+                while ((line = in.readLine()) != null) {
+                    answers.append(line).append('\n');
+                }
+                assertEquals(wanted.toString(), answers.toString());
+            }
+            try (Socket socket = connect(server)) {
+                ByteBuffer frame = ByteBuffer.allocate(1024);
+                frame.put(BinaryProtocol.PREAMBLE);
+                BinaryProtocol.putCommands(frame, Arrays.asList(
+                        Command.deposit(AccountType.CHECKING, BILL, 2500),
+                        Command.withdraw(AccountType.CHECKING, BILL, 100000),
+                        Command.close(AccountType.SAVINGS, BILL),
+                        Command.close(AccountType.CHECKING, BILL)));
+                socket.getOutputStream().write(frame.array(), 0,
+                        frame.position());
+                DataInputStream in = new DataInputStream(
+                        socket.getInputStream());
+                byte[] body = new byte[in.readInt()];
+                in.readFully(body);
+                BinaryProtocol.Response response =
+                        BinaryProtocol.getResponse(ByteBuffer.wrap(body));
+                assertTrue(response.isComplete());
+                assertArrayEquals(new ResultCode[] {ResultCode.OK,
+                        ResultCode.INSUFFICIENT_FUNDS, ResultCode.NOT_FOUND,
+                        ResultCode.OK}, response.getResults());
+            }
+        }
+    }
+
+    /**
+     * Test case #2
+     * Tests if a connection stops reading once it has the most unanswered
+     * commands while the engine is busy, and every command is answered
+     * in order once the engine goes on
+     */
+    @org.junit.Test
+    public void test_UnansweredLimit() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        TransactionEngine engine = new TransactionEngine(
+                new AccountDatabase()) {
+            @Override
+            public ResultCode execute(Command command) {
+                try {
+                    release.await();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.execute(command);
+            }
+        };
+        int total = TransactionServer.MAX_UNANSWERED + EXTRA_COMMANDS;
+        try (TransactionServer server = start(engine);
+             Socket socket = connect(server)) {
+            Thread sender = new Thread(() -> {
+                StringBuilder commands = new StringBuilder();
+                for (int i = 0; i < total; ++i) {
+                    commands.append("D C Bill Gates 1/1/1976 ")
+                            .append(i + 1).append('\n');
+                }
+                try {
+                    socket.getOutputStream().write(commands.toString()
+                            .getBytes(StandardCharsets.UTF_8));
+                    socket.shutdownOutput();
+                }
+                catch (IOException e) {
+                    //reported by the missing answers
+                }
+            });
+            sender.start();
+            int limit = TransactionServer.MAX_UNANSWERED - 1; //one is running
+            long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+            while (server.getQueuedCommands() < limit
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Thread.sleep(SETTLE_MILLIS);
+            assertEquals(limit, server.getQueuedCommands());
+            release.countDown();
+            BufferedReader in = new BufferedReader(new InputStreamReader(
+                    socket.getInputStream(), StandardCharsets.UTF_8));
+            String expected = Command.parse("D C Bill Gates 1/1/1976 1")
+                    .message(ResultCode.NOT_FOUND).trim();
+            int answered = 0;
+            String line;
+            while ((line = in.readLine()) != null) {
+                assertEquals(expected, line);
+                ++answered;
+            }
+            assertEquals(total, answered);
+            sender.join();
+        }
+    }
+
+    /**
+     * Starts a server for the engine on a free loopback port
+     * @param engine engine running the commands
+     * @return the started server
+     * @throws IOException if no port can be opened
+     */
+    private static TransactionServer start(TransactionEngine engine)
+            throws IOException {
+        TransactionServer server = new TransactionServer(engine, 0);
+        server.start();
+        return server;
+    }
+
+    /**
+     * Connects to a server
+     * @param server the server
+     * @return the connected socket
+     * @throws IOException if the server cannot be reached
+     */
+    private static Socket connect(TransactionServer server)
+            throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(),
+                server.getPort());
+        socket.setSoTimeout((int) TIMEOUT_MILLIS);
+        return socket;
+    }
+}
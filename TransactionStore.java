@@ -0,0 +1,116 @@
+package com.banking;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Keeps the account database of a transaction engine in a directory, so
+ * the accounts survive a restart. Every change is logged to the journal
+ * in the directory before it is applied. A checkpoint saves a snapshot
+ * of the accounts with the journal position it is consistent with, and
+ * closing the store takes one. Opening the directory loads the snapshot
+ * and replays only the journal records written after it.
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class TransactionStore implements Closeable {
+    private final Path snapshot; //snapshot file
+    private final AccountDatabase acctDb;
+    private final TransactionJournal journal;
+    private final TransactionEngine engine;
+
+    public static final Path DEFAULT_DIRECTORY = Paths.get("banking-data");
+    private static final String JOURNAL_FILE = "transactions.journal";
+    private static final String SNAPSHOT_FILE = "accounts.snapshot";
+    private static final long START = 0;
+
+    /**
+     * Creates a store over a recovered database and its journal
+     * @param snapshot the snapshot file
+     * @param acctDb the recovered account database
+     * @param journal journal the changes are logged to
+     */
+    private TransactionStore(Path snapshot, AccountDatabase acctDb,
+                             TransactionJournal journal) {
+        this.snapshot = snapshot;
+        this.acctDb = acctDb;
+        this.journal = journal;
+        this.engine = new TransactionEngine(acctDb, journal);
+    }
+
+    /**
+     * Opens the store in a directory, creating the directory if needed,
+     * and recovers the accounts from the snapshot and the journal
+     * @param directory the directory
+     * @param durability how soon logged transactions are forced to disk
+     * @return the store
+     * @throws IOException if the directory or journal cannot be used
+     */
+    public static TransactionStore open(Path directory,
+                                        TransactionJournal.Durability durability)
+            throws IOException {
+        Files.createDirectories(directory);
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        AccountDatabase acctDb = new AccountDatabase();
+        long position = START;
+        if (Files.exists(snapshot)) {
+            position = AccountSnapshot.load(snapshot, acctDb);
+        }
+        TransactionJournal journal = TransactionJournal.open(
+                directory.resolve(JOURNAL_FILE), durability, acctDb, position);
+        return new TransactionStore(snapshot, acctDb, journal);
+    }
+
+    /**
+     * Returns the recovered account database
+     * @return the account database
+     */
+    public AccountDatabase getDatabase() {
+        return acctDb;
+    }
+
+    /**
+     * Returns the journal the changes are logged to
+     * @return the journal
+     */
+    public TransactionJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Returns the engine running transactions against the database and
+     * logging them to the journal
+     * @return the engine
+     */
+    public TransactionEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Saves a snapshot of the accounts, so the next recovery replays only
+     * the transactions logged after now. No transaction may run while
+     * the snapshot is taken.
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void checkpoint() throws IOException {
+        journal.sync();
+        AccountSnapshot.write(acctDb, journal.getPosition(), snapshot);
+    }
+
+    /**
+     * Takes a checkpoint and closes the journal. No transaction may run
+     * while the store is closed.
+     * @throws IOException if the snapshot or journal cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            checkpoint();
+        }
+        finally {
+            journal.close();
+        }
+    }
+}
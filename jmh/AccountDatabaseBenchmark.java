@@ -0,0 +1,196 @@
+package com.banking;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the transactions of the account database at different sizes
+ * and account type mixes
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountDatabaseBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"EVEN", "CHECKING_HEAVY", "SAVINGS_HEAVY"})
+    private String mix;
+
+    private AccountDatabase acctDb;
+    private ColumnarAccountStore columnar; //same accounts as the database
+    private Account[] deposits; //one per account in the database
+    private Account[] withdrawals; //one per account in the database
+    private Account[] absent; //accounts not in the database
+    private int[] order; //random visiting order
+    private int next;
+
+    private static final long AMOUNT = 100; //cents
+    private static final int ABSENT_ACCOUNTS = 1024;
+
+    /**
+     * Fills the database before the measurements
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        Account[] present = BenchmarkData.accounts(size, mix, 0);
+        acctDb = new AccountDatabase(size);
+        acctDb.openAll(Arrays.asList(present));
+        columnar = ColumnarAccountStore.of(acctDb);
+        deposits = BenchmarkData.transactions(present, AMOUNT);
+        withdrawals = BenchmarkData.transactions(present, AMOUNT);
+        absent = BenchmarkData.accounts(ABSENT_ACCOUNTS, mix, size);
+        order = BenchmarkData.shuffledOrder(size);
+    }
+
+    /**
+     * Returns the next account position in random order
+     * @return account position
+     */
+    private int next() {
+        if (++next == order.length) {
+            next = 0;
+        }
+        return order[next];
+    }
+
+    /**
+     * Looks up an account that is in the database
+     * @return true if found
+     */
+    @Benchmark
+    public boolean contains() {
+        return acctDb.contains(deposits[next()]);
+    }
+
+    /**
+     * Looks up an account that is not in the database
+     * @return true if found
+     */
+    @Benchmark
+    public boolean containsMissing() {
+        return acctDb.contains(absent[next() % ABSENT_ACCOUNTS], true);
+    }
+
+    /**
+     * Deposits into an account
+     */
+    @Benchmark
+    public void deposit() {
+        acctDb.deposit(deposits[next()]);
+    }
+
+    /**
+     * Withdraws from an account
+     * @return true if withdrawn
+     */
+    @Benchmark
+    public boolean withdraw() {
+        return acctDb.withdraw(withdrawals[next()]);
+    }
+
+    /**
+     * Deposits into an account by type and holder, with one lookup and
+     * no account object carrying the amount
+     * @return outcome of the deposit
+     */
+    @Benchmark
+    public ResultCode depositByHolder() {
+        Account acct = deposits[next()];
+        return acctDb.deposit(acct.getType(), acct.getProfile(), AMOUNT);
+    }
+
+    /**
+     * Opens and then closes an account, leaving the size unchanged
+     * @return true if closed
+     */
+    @Benchmark
+    public boolean openClose() {
+        Account acct = absent[next() % ABSENT_ACCOUNTS];
+        acctDb.open(acct);
+        return acctDb.close(acct);
+    }
+
+    /**
+     * Prints the sorted accounts
+     * @return number of characters printed
+     * @throws IOException never, the destination only counts
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long printSorted() throws IOException {
+        BenchmarkData.CountingAppendable out =
+                new BenchmarkData.CountingAppendable();
+        acctDb.writeSorted(out);
+        return out.getCount();
+    }
+
+    /**
+     * Prints the accounts with fees and interests
+     * @return number of characters printed
+     * @throws IOException never, the destination only counts
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long printFeesAndInterests() throws IOException {
+        BenchmarkData.CountingAppendable out =
+                new BenchmarkData.CountingAppendable();
+        acctDb.writeFeesAndInterests(out);
+        return out.getCount();
+    }
+
+    /**
+     * Applies fees and interests and prints the updated accounts
+     * @return number of characters printed
+     * @throws IOException never, the destination only counts
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long printUpdatedBalances() throws IOException {
+        BenchmarkData.CountingAppendable out =
+                new BenchmarkData.CountingAppendable();
+        acctDb.writeUpdatedBalances(out);
+        return out.getCount();
+    }
+
+    /**
+     * Applies fees and interests to the Account objects of the database
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void applyMonthly() {
+        acctDb.applyMonthlyInterestAndFees();
+    }
+
+    /**
+     * Applies fees and interests to the columns of the columnar store
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void applyMonthlyColumnar() {
+        columnar.applyMonthlyInterestAndFees();
+    }
+}
@@ -0,0 +1,72 @@
+package com.banking;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures loading an account file into an empty database
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AccountLoaderBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int lines;
+
+    @Param({"EVEN", "CHECKING_HEAVY", "SAVINGS_HEAVY"})
+    private String mix;
+
+    private Path source;
+
+    /**
+     * Writes the account file before the measurements
+     * @throws IOException if the file cannot be written
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        source = Files.createTempFile("accounts", ".txt");
+        Files.write(source, BenchmarkData.importFile(lines, mix)
+                .getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Deletes the account file after the measurements
+     * @throws IOException if the file cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(source);
+    }
+
+    /**
+     * Loads the whole file into an empty database
+     * @return number of accounts loaded
+     * @throws IOException if the file cannot be read
+     */
+    @Benchmark
+    public int load() throws IOException {
+        AccountDatabase acctDb = new AccountDatabase();
+        return new AccountLoader(acctDb).load(source).getLoaded();
+    }
+}
@@ -0,0 +1,210 @@
+package com.banking;
+
+import java.util.Calendar;
+import java.util.Random;
+
+/**
+ * Generates the accounts, profiles and dates used by the benchmarks
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+final class BenchmarkData {
+    private static final long SEED = 20230401L;
+    private static final int LAST_NAMES = 5000;
+    private static final int FIRST_YEAR = 1950;
+    private static final int YEARS = 55;
+    private static final int MONTHS = 12;
+    private static final int DAYS = 28;
+    private static final int COLLEGE_AGE = 20;
+    private static final long LARGE_BALANCE = 1_000_000_000_00L; //cents
+
+    /**
+     * Prevents instantiation, all generators are static
+     */
+    private BenchmarkData() {
+    }
+
+    /**
+     * Returns the account types of a mix in the proportion they occur
+     * @param mix EVEN, CHECKING_HEAVY or SAVINGS_HEAVY
+     * @return account types to draw from
+     */
+    private static AccountType[] types(String mix) {
+        switch (mix) {
+            case "CHECKING_HEAVY":
+                return new AccountType[] {AccountType.CHECKING,
+                        AccountType.CHECKING, AccountType.CHECKING,
+                        AccountType.COLLEGE_CHECKING, AccountType.CHECKING,
+                        AccountType.COLLEGE_CHECKING, AccountType.SAVINGS,
+                        AccountType.MONEY_MARKET};
+            case "SAVINGS_HEAVY":
+                return new AccountType[] {AccountType.SAVINGS,
+                        AccountType.SAVINGS, AccountType.MONEY_MARKET,
+                        AccountType.SAVINGS, AccountType.MONEY_MARKET,
+                        AccountType.SAVINGS, AccountType.CHECKING,
+                        AccountType.COLLEGE_CHECKING};
+            default:
+                return AccountType.values();
+        }
+    }
+
+    /**
+     * Creates distinct accounts with a large balance
+     * @param count number of accounts
+     * @param mix account type mix
+     * @param firstId id of the first holder, so separate calls can
+     *                create holders that do not overlap
+     * @return accounts
+     */
+    static Account[] accounts(int count, String mix, int firstId) {
+        AccountType[] types = types(mix);
+        Random random = new Random(SEED + firstId);
+        Account[] accounts = new Account[count];
+        for (int i = 0; i < count; ++i) {
+            AccountType type = types[random.nextInt(types.length)];
+            accounts[i] = TransactionEngine.makeAccount(type,
+                    profile(firstId + i, random), LARGE_BALANCE,
+                    Campus.NEWARK, random.nextBoolean());
+        }
+        return accounts;
+    }
+
+    /**
+     * Creates accounts of the same type and holder as the specified
+     * accounts, carrying the amount of a deposit or withdrawal
+     * @param accounts accounts the transactions are for
+     * @param amount amount in cents
+     * @return transaction accounts
+     */
+    static Account[] transactions(Account[] accounts, long amount) {
+        Account[] transactions = new Account[accounts.length];
+        for (int i = 0; i < accounts.length; ++i) {
+            transactions[i] = TransactionEngine.makeAccount(
+                    accounts[i].getType(), accounts[i].getProfile(), amount,
+                    null, false);
+        }
+        return transactions;
+    }
+
+    /**
+     * Creates a profile for a holder id, many holders sharing last names
+     * @param id holder id
+     * @param random source of the date of birth
+     * @return profile
+     */
+    static Profile profile(int id, Random random) {
+        return new Profile("First" + id, "Last" + (id % LAST_NAMES),
+                date(random));
+    }
+
+    /**
+     * Creates a valid date of birth
+     * @param random source of the date
+     * @return date
+     */
+    static Date date(Random random) {
+        return new Date(FIRST_YEAR + random.nextInt(YEARS),
+                1 + random.nextInt(MONTHS), 1 + random.nextInt(DAYS));
+    }
+
+    /**
+     * Creates a random visiting order over a number of positions
+     * @param count number of positions
+     * @return positions in random order
+     */
+    static int[] shuffledOrder(int count) {
+        Random random = new Random(SEED);
+        int[] order = new int[count];
+        for (int i = 0; i < count; ++i) {
+            order[i] = i;
+        }
+        for (int i = count - 1; i > 0; --i) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+
+    /**
+     * Writes lines of accounts in the import file format, every line
+     * holding a valid account
+     * @param count number of lines
+     * @param mix account type mix
+     * @return file contents
+     */
+    static String importFile(int count, String mix) {
+        AccountType[] types = types(mix);
+        Random random = new Random(SEED);
+        int collegeYear = Calendar.getInstance().get(Calendar.YEAR)
+                - COLLEGE_AGE;
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; ++i) {
+            AccountType type = types[random.nextInt(types.length)];
+            int year = type == AccountType.COLLEGE_CHECKING
+                    ? collegeYear : FIRST_YEAR + random.nextInt(YEARS);
+            text.append(type.getSymbol()).append(",First").append(i)
+                    .append(",Last").append(i % LAST_NAMES).append(',')
+                    .append(1 + random.nextInt(MONTHS)).append('/')
+                    .append(1 + random.nextInt(DAYS)).append('/')
+                    .append(year).append(",2500.00");
+            if (type == AccountType.COLLEGE_CHECKING
+                    || type == AccountType.SAVINGS) {
+                text.append(",1");
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Represents a report destination that only counts characters,
+     * so report benchmarks measure rendering and not storage
+     */
+    static class CountingAppendable implements Appendable {
+        private long count;
+
+        /**
+         * Counts the characters of a sequence
+         * @param csq the sequence
+         * @return this destination
+         */
+        @Override
+        public Appendable append(CharSequence csq) {
+            count += csq.length();
+            return this;
+        }
+
+        /**
+         * Counts the characters of part of a sequence
+         * @param csq the sequence
+         * @param start index of the first character
+         * @param end index after the last character
+         * @return this destination
+         */
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) {
+            count += end - start;
+            return this;
+        }
+
+        /**
+         * Counts a character
+         * @param c the character
+         * @return this destination
+         */
+        @Override
+        public Appendable append(char c) {
+            ++count;
+            return this;
+        }
+
+        /**
+         * Returns the number of characters written
+         * @return number of characters
+         */
+        long getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.banking;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the allocation profiler and saves the results
+ * as JSON, so a change can be compared against a baseline run. The
+ * benchmarks live in the jmh directory, apart from the application, and
+ * are compiled against the application classes with jmh-core and the
+ * JMH annotation processor on the classpath.
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class BenchmarkRunner {
+
+    /**
+     * Runs the benchmarks whose names match the arguments, or every
+     * benchmark if there are none
+     * @param args benchmark name patterns
+     * @throws RunnerException if a benchmark fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        OptionsBuilder options = new OptionsBuilder();
+        for (String pattern : args) {
+            options.include(pattern);
+        }
+        if (args.length == 0) {
+            options.include("com\\.banking\\..*Benchmark");
+        }
+        Options opts = options.addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("jmh-result.json")
+                .build();
+        new Runner(opts).run();
+    }
+}
@@ -0,0 +1,95 @@
+package com.banking;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures profile comparison and the date checks run for every
+ * account holder
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProfileDateBenchmark {
+    private Profile[] profiles;
+    private Profile[] sameNames; //same names as profiles, other birthdays
+    private Date[] dates;
+    private int next;
+
+    private static final int COUNT = 4096;
+    private static final int MASK = COUNT - 1;
+
+    /**
+     * Creates the profiles and dates before the measurements
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(COUNT);
+        profiles = new Profile[COUNT];
+        sameNames = new Profile[COUNT];
+        dates = new Date[COUNT];
+        for (int i = 0; i < COUNT; ++i) {
+            profiles[i] = BenchmarkData.profile(i, random);
+            sameNames[i] = new Profile("FIRST" + i, "last" + i,
+                    BenchmarkData.date(random));
+            dates[i] = BenchmarkData.date(random);
+        }
+    }
+
+    /**
+     * Compares two profiles with different names
+     * @return comparison result
+     */
+    @Benchmark
+    public int compareDifferentNames() {
+        next = (next + 1) & MASK;
+        return profiles[next].compareTo(profiles[(next + 1) & MASK]);
+    }
+
+    /**
+     * Compares two profiles whose names differ only by case, so the
+     * comparison reaches the date of birth
+     * @return comparison result
+     */
+    @Benchmark
+    public int compareSameNames() {
+        next = (next + 1) & MASK;
+        return profiles[next].compareTo(sameNames[next]);
+    }
+
+    /**
+     * Checks whether a date is a valid calendar date
+     * @return true if valid
+     */
+    @Benchmark
+    public boolean isValid() {
+        next = (next + 1) & MASK;
+        return dates[next].isValid();
+    }
+
+    /**
+     * Computes the age of a date of birth
+     * @return age
+     */
+    @Benchmark
+    public int getAge() {
+        next = (next + 1) & MASK;
+        return dates[next].getAge();
+    }
+}